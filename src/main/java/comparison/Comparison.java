@@ -6,15 +6,25 @@ import java.util.List;
 import java.util.Optional;
 import constraints.definitions.ModelDefinition;
 import constraints.generation.ConstraintDFAGenerator;
+import constraints.generation.ModelDecomposition;
+import constraints.generation.ModelSession;
 import data.algorithms.DFAAlgorithms;
+import data.algorithms.util.DFATraversal;
+import data.algorithms.util.PDFALanguageType;
 import data.automaton.definitions.DFA;
-import data.exceptions.DFASEqualException;
+import data.automaton.definitions.ProductDFA;
 import data.regex.definitions.Regex;
 
 public class Comparison {
 
-	private DFA firstDFA;
-	private DFA secondDFA;
+	private ModelDefinition model1;
+	private ModelDefinition model2;
+	private Optional<DFA> firstDFA;
+	private Optional<DFA> secondDFA;
+	private Optional<ProductDFA> product;
+	private Optional<Optional<ConstraintDiff>> constraintDiff;
+	private Optional<List<DFA>> firstComponents;
+	private Optional<List<DFA>> secondComponents;
 	
 	private boolean areEquivalent;
 	
@@ -29,13 +39,39 @@ public class Comparison {
 	
 	private int maxWordSize;
 	
-	private Comparison(ModelDefinition model1, ModelDefinition model2, int maxWordSize) {
+	private Comparison(ModelDefinition model1, ModelDefinition model2, Optional<DFA> firstDFA, Optional<DFA> secondDFA, int maxWordSize) {
+		this.model1 = model1;
+		this.model2 = model2;
 		this.maxWordSize = maxWordSize;
 		
-		firstDFA = ConstraintDFAGenerator.generateDFA(model1);
-		secondDFA = ConstraintDFAGenerator.generateDFA(model2);
+		this.firstDFA = firstDFA;
+		this.secondDFA = secondDFA;
+		product = Optional.empty();
+		constraintDiff = Optional.empty();
+		firstComponents = Optional.empty();
+		secondComponents = Optional.empty();
 		
-		areEquivalent = DFAAlgorithms.areEquivalent(firstDFA, secondDFA);
+		/*
+		 * If both dfas are given or the models have different activities, equivalence is decided on both dfas directly with the
+		 * union-find algorithm of Hopcroft and Karp, neither dfa is minimized and no product is built.
+		 * Otherwise, if the components of both models align (which is checked before any dfa is built), equivalence is decided
+		 * component by component. The component dfas are kept, the dfas of the models are built from them if they are needed later.
+		 * If the components do not align, the constraints both models share are stripped and the remaining constraints
+		 * are checked against each other (see ConstraintDiff). If that leaves a direction undecided, equivalence is decided
+		 * on both dfas with the union-find algorithm.
+		 * In all cases the product is only built if another analysis needs it.
+		 */
+		if((firstDFA.isPresent() && secondDFA.isPresent()) || !model1.getActivities().equals(model2.getActivities()))
+			areEquivalent = DFAAlgorithms.areEquivalent(getFirstDFA(), getSecondDFA());
+		else if(ModelDecomposition.areAligned(model1, model2) && !model1.getConstraints().isEmpty()) {
+			firstComponents = Optional.of(ModelDecomposition.getComponentDFAs(model1));
+			secondComponents = Optional.of(ModelDecomposition.getComponentDFAs(model2));
+			areEquivalent = ModelDecomposition.areEquivalent(firstComponents.get(), secondComponents.get());
+		}
+		else if(getConstraintDiff().get().isSubset1Of2().isPresent() && getConstraintDiff().get().isSubset2Of1().isPresent())
+			areEquivalent = getConstraintDiff().get().isSubset1Of2().get() && getConstraintDiff().get().isSubset2Of1().get();
+		else
+			areEquivalent = DFAAlgorithms.areEquivalent(getFirstDFA(), getSecondDFA());
 		subset1Of2TestResult = Optional.empty();
 		subset2Of1TestResult = Optional.empty();
 		regex1 = Optional.empty();
@@ -49,58 +85,83 @@ public class Comparison {
 	public static Comparison compareModels(ModelDefinition model1, ModelDefinition model2, int maxWordSize) {
 		if(model1 == null || model2 == null)
 			throw new IllegalArgumentException("Input parameters must not be null!");
-		return new Comparison(model1,model2,maxWordSize);
+		return new Comparison(model1,model2,Optional.empty(),Optional.empty(),maxWordSize);
+	}
+	
+	/**
+	 * Compares the current model of a session to the reference model of the session.
+	 * The dfa of the current model is taken from the session and the dfa of the reference model is only built once per session.
+	 * @param session the session, must have a reference model
+	 * @param maxWordSize the maximum size of the listed words
+	 * @return the comparison of the current model (first) and the reference model (second)
+	 */
+	public static Comparison compareToReference(ModelSession session, int maxWordSize) {
+		if(session == null || session.getReference().isEmpty())
+			throw new IllegalArgumentException("The session must have a reference model!");
+		return new Comparison(session.getModel(),session.getReference().get(),Optional.of(session.getDFA()),session.getReferenceDFA(),maxWordSize);
 	}
 	
 	public DFA getFirstDFA() {
-		return firstDFA;
+		if(firstDFA.isEmpty())
+			firstDFA = Optional.of(firstComponents.isPresent() ? ModelDecomposition.getModelDFA(firstComponents.get()) : ConstraintDFAGenerator.generateDFA(model1));
+		return firstDFA.get();
 	}
 	
 	public DFA getSecondDFA() {
-		return secondDFA;
+		if(secondDFA.isEmpty())
+			secondDFA = Optional.of(secondComponents.isPresent() ? ModelDecomposition.getModelDFA(secondComponents.get()) : ConstraintDFAGenerator.generateDFA(model2));
+		return secondDFA.get();
 	}
 	
 	public boolean areEquivalent() {
 		return areEquivalent;
 	}
 	
+	/**
+	 * Returns the constraint level difference of both models. It is computed on the first request.
+	 * @return the difference or an empty optional if the models have different activities
+	 */
+	public Optional<ConstraintDiff> getConstraintDiff() {
+		if(constraintDiff.isEmpty()) {
+			if(model1.getActivities().equals(model2.getActivities()))
+				constraintDiff = Optional.of(Optional.of(ConstraintDiff.compute(model1, model2)));
+			else
+				constraintDiff = Optional.of(Optional.empty());
+		}
+		return constraintDiff.get();
+	}
+	
 	public Optional<String> subset1Of2TestResult(){
-		if(subset1Of2TestResult.isPresent())
-			return subset1Of2TestResult.get();
-		try {
-			subset1Of2TestResult = Optional.of(Optional.of(DFAAlgorithms.getWordAcceptedByOneRejectedByTwo(firstDFA, secondDFA)));
-		} catch (DFASEqualException e) {
+		if(subset1Of2TestResult.isEmpty() && areEquivalent)
 			subset1Of2TestResult = Optional.of(Optional.empty());
-		}
+		if(subset1Of2TestResult.isEmpty())
+			subset1Of2TestResult = Optional.of(getShortestWord(PDFALanguageType.ONEMINUSTWO));
 		return subset1Of2TestResult.get();
 	}
 	
 	public Optional<String> subset2Of1TestResult(){
-		if(subset2Of1TestResult.isPresent())
-			return subset2Of1TestResult.get();
-		try {
-			subset2Of1TestResult = Optional.of(Optional.of(DFAAlgorithms.getWordAcceptedByOneRejectedByTwo(secondDFA, firstDFA)));
-		} catch (DFASEqualException e) {
+		if(subset2Of1TestResult.isEmpty() && areEquivalent)
 			subset2Of1TestResult = Optional.of(Optional.empty());
-		}
+		if(subset2Of1TestResult.isEmpty())
+			subset2Of1TestResult = Optional.of(getShortestWord(PDFALanguageType.TWOMINUSONE));
 		return subset2Of1TestResult.get();
 	}
 	
 	public Regex getFirstRegex() {
 		if(regex1.isEmpty())
-			regex1 = Optional.of(DFAAlgorithms.getEquivalentRegex(firstDFA));
+			regex1 = Optional.of(DFAAlgorithms.getEquivalentRegex(getFirstDFA()));
 		return regex1.get();
 	}
 	
 	public Regex getSecondRegex() {
 		if(regex2.isEmpty())
-			regex2 = Optional.of(DFAAlgorithms.getEquivalentRegex(secondDFA));
+			regex2 = Optional.of(DFAAlgorithms.getEquivalentRegex(getSecondDFA()));
 		return regex2.get();
 	}
 	
 	public List<String> getWordsOf1(){
 		if(wordsOf1.isEmpty()) {
-			List<String> wordsFirst = new ArrayList<>(firstDFA.acceptsUntilLength(maxWordSize));
+			List<String> wordsFirst = new ArrayList<>(getFirstDFA().acceptsUntilLength(maxWordSize));
 			Collections.sort(wordsFirst);
 			wordsOf1 = Optional.of(wordsFirst);
 		}
@@ -109,7 +170,7 @@ public class Comparison {
 	
 	public List<String> getWordsOf2(){
 		if(wordsOf2.isEmpty()) {
-			List<String> wordsSecond = new ArrayList<>(secondDFA.acceptsUntilLength(maxWordSize));
+			List<String> wordsSecond = new ArrayList<>(getSecondDFA().acceptsUntilLength(maxWordSize));
 			Collections.sort(wordsSecond);
 			wordsOf2 = Optional.of(wordsSecond);
 		}
@@ -117,24 +178,49 @@ public class Comparison {
 	}
 	
 	public List<String> getWordsOf1NotIn2(){
-		if(wordsOf1NotIn2.isEmpty()) {
-			List<String> wordsDiff12 = new ArrayList<>(DFAAlgorithms.productDFADifference(firstDFA, secondDFA).acceptsUntilLength(maxWordSize));
-			Collections.sort(wordsDiff12);
-			wordsOf1NotIn2 = Optional.of(wordsDiff12);
-		}
+		if(wordsOf1NotIn2.isEmpty())
+			wordsOf1NotIn2 = Optional.of(getWords(PDFALanguageType.ONEMINUSTWO));
 		return Collections.unmodifiableList(wordsOf1NotIn2.get());
 	}
 
 	public List<String> getWordsOf2NotIn1(){
-		if(wordsOf2NotIn1.isEmpty()) {
-			List<String> wordsDiff21 = new ArrayList<>(DFAAlgorithms.productDFADifference(secondDFA, firstDFA).acceptsUntilLength(maxWordSize));
-			Collections.sort(wordsDiff21);
-			wordsOf2NotIn1 = Optional.of(wordsDiff21);
-		}
+		if(wordsOf2NotIn1.isEmpty())
+			wordsOf2NotIn1 = Optional.of(getWords(PDFALanguageType.TWOMINUSONE));
 		return Collections.unmodifiableList(wordsOf2NotIn1.get());
 	}
 	
 	public int getMaxWordSize() {
 		return maxWordSize;
 	}
+	
+	/**
+	 * All analyses on both languages are read from one reachable product of both minimized dfas.
+	 */
+	private ProductDFA getProduct() {
+		if(product.isEmpty())
+			product = Optional.of(DFAAlgorithms.productDFA(DFAAlgorithms.minimizeDFA(getFirstDFA()), DFAAlgorithms.minimizeDFA(getSecondDFA()), PDFALanguageType.SYMMETRICDIFFERENCE));
+		return product.get();
+	}
+	
+	private boolean isAccepting(int state, PDFALanguageType type) {
+		ProductDFA product = getProduct();
+		return type.isAccepting(product.isAcceptingFirst(state), product.isAcceptingSecond(state));
+	}
+	
+	/**
+	 * Searches the product breadth first for a pair state that is accepting for the given type.
+	 * @return a shortest word leading to such a state or an empty optional if there is none
+	 */
+	private Optional<String> getShortestWord(PDFALanguageType type) {
+		return DFATraversal.getShortestWord(getProduct(), state -> isAccepting(state, type));
+	}
+	
+	/**
+	 * @return the sorted words up to the maximum word size that lead to a pair state that is accepting for the given type
+	 */
+	private List<String> getWords(PDFALanguageType type) {
+		List<String> words = DFATraversal.getWords(getProduct(), state -> isAccepting(state, type), maxWordSize, false);
+		Collections.sort(words);
+		return words;
+	}
 }
@@ -0,0 +1,187 @@
+package comparison;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import constraints.definitions.Constraint;
+import constraints.definitions.ModelDefinition;
+import constraints.generation.ConstraintDFAGenerator;
+import constraints.generation.ConstraintKey;
+import constraints.implementations.ConstraintFactory;
+import data.algorithms.DFAAlgorithms;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.Symbol;
+
+/**
+ * The constraint level difference of two models over the same activities.
+ * The constraints that both models share are stripped, only the remaining constraints of each model are checked.
+ * A model decides a subset of the other model if and only if it implies every remaining constraint of the other model.
+ * The difference only uses the implication matrix of the remaining constraints, the dfas of the models are never built.
+ * A remaining constraint that is implied by a single remaining constraint of the other model is implied by that model.
+ * Otherwise the constraint level is undecided, since the constraint may still be implied by a conjunction of constraints.
+ * The constraint dfas are built over the reduced alphabet of both models (see ConstraintDFAGenerator.getReducedAlphabet),
+ * so they are shared with the model dfas in the cache of ConstraintDFAGenerator.
+ */
+public class ConstraintDiff {
+
+	private List<Constraint> common;
+	private List<Constraint> onlyIn1;
+	private List<Constraint> onlyIn2;
+
+	private boolean[][] implies1To2;
+	private boolean[][] implies2To1;
+	private boolean[] impliedBy1;
+	private boolean[] impliedBy2;
+
+	private ConstraintDiff() {}
+
+	/**
+	 * Computes the constraint level difference of two models over the same activities.
+	 * @param model1 the first model
+	 * @param model2 the second model
+	 * @return the difference
+	 */
+	static ConstraintDiff compute(ModelDefinition model1, ModelDefinition model2) {
+		Map<ConstraintKey,Constraint> constraints1 = getDistinctConstraints(model1);
+		Map<ConstraintKey,Constraint> constraints2 = getDistinctConstraints(model2);
+		ConstraintDiff diff = new ConstraintDiff();
+		diff.common = new ArrayList<>();
+		diff.onlyIn1 = new ArrayList<>();
+		diff.onlyIn2 = new ArrayList<>();
+		for(Map.Entry<ConstraintKey,Constraint> entry: constraints1.entrySet())
+			(constraints2.containsKey(entry.getKey()) ? diff.common : diff.onlyIn1).add(entry.getValue());
+		for(Map.Entry<ConstraintKey,Constraint> entry: constraints2.entrySet())
+			if(!constraints1.containsKey(entry.getKey()))
+				diff.onlyIn2.add(entry.getValue());
+
+		List<Constraint> constraints = new ArrayList<>(model1.getConstraints());
+		constraints.addAll(model2.getConstraints());
+		Set<Symbol> alphabet = ConstraintDFAGenerator.getReducedAlphabet(ConstraintFactory.createModelDefinition(model1.getActivities(), constraints));
+		List<DFA> dfas1 = getConstraintDFAs(alphabet, diff.onlyIn1);
+		List<DFA> dfas2 = getConstraintDFAs(alphabet, diff.onlyIn2);
+		diff.implies1To2 = getImplicationMatrix(dfas1, dfas2);
+		diff.implies2To1 = getImplicationMatrix(dfas2, dfas1);
+		diff.impliedBy1 = getImplied(diff.implies1To2, dfas2.size());
+		diff.impliedBy2 = getImplied(diff.implies2To1, dfas1.size());
+		return diff;
+	}
+
+	/**
+	 * @return the constraints of both models
+	 */
+	public List<Constraint> getCommonConstraints() {
+		return Collections.unmodifiableList(common);
+	}
+
+	/**
+	 * @return the constraints of the first model that are not constraints of the second model
+	 */
+	public List<Constraint> getConstraintsOnlyIn1() {
+		return Collections.unmodifiableList(onlyIn1);
+	}
+
+	/**
+	 * @return the constraints of the second model that are not constraints of the first model
+	 */
+	public List<Constraint> getConstraintsOnlyIn2() {
+		return Collections.unmodifiableList(onlyIn2);
+	}
+
+	/**
+	 * @param i the index of a constraint in getConstraintsOnlyIn1()
+	 * @param j the index of a constraint in getConstraintsOnlyIn2()
+	 * @return true if the first constraint implies the second constraint
+	 */
+	public boolean implies1To2(int i, int j) {
+		return implies1To2[i][j];
+	}
+
+	/**
+	 * @param j the index of a constraint in getConstraintsOnlyIn2()
+	 * @param i the index of a constraint in getConstraintsOnlyIn1()
+	 * @return true if the second constraint implies the first constraint
+	 */
+	public boolean implies2To1(int j, int i) {
+		return implies2To1[j][i];
+	}
+
+	/**
+	 * @param j the index of a constraint in getConstraintsOnlyIn2()
+	 * @return true if a single constraint of getConstraintsOnlyIn1() implies the constraint
+	 */
+	public boolean isImpliedBy1(int j) {
+		return impliedBy1[j];
+	}
+
+	/**
+	 * @param i the index of a constraint in getConstraintsOnlyIn1()
+	 * @return true if a single constraint of getConstraintsOnlyIn2() implies the constraint
+	 */
+	public boolean isImpliedBy2(int i) {
+		return impliedBy2[i];
+	}
+
+	/**
+	 * @return true if the first model decides a subset of the second model
+	 * or an empty optional if it is undecided on the constraint level
+	 */
+	public Optional<Boolean> isSubset1Of2() {
+		return allTrue(impliedBy1) ? Optional.of(true) : Optional.empty();
+	}
+
+	/**
+	 * @return true if the second model decides a subset of the first model
+	 * or an empty optional if it is undecided on the constraint level
+	 */
+	public Optional<Boolean> isSubset2Of1() {
+		return allTrue(impliedBy2) ? Optional.of(true) : Optional.empty();
+	}
+
+	private static Map<ConstraintKey,Constraint> getDistinctConstraints(ModelDefinition definition) {
+		Map<ConstraintKey,Constraint> constraints = new LinkedHashMap<>();
+		for(Constraint constraint: definition.getConstraints())
+			constraints.putIfAbsent(new ConstraintKey(constraint), constraint);
+		return constraints;
+	}
+
+	private static List<DFA> getConstraintDFAs(Set<Symbol> alphabet, List<Constraint> constraints) {
+		List<DFA> dfas = new ArrayList<>(constraints.size());
+		for(Constraint constraint: constraints)
+			dfas.add(ConstraintDFAGenerator.getCache().getDFA(alphabet, constraint));
+		return dfas;
+	}
+
+	/**
+	 * @return the matrix whose entry (i,j) is true if the i-th dfa of the first list decides a subset of the j-th dfa of the second list
+	 */
+	private static boolean[][] getImplicationMatrix(List<DFA> dfas1, List<DFA> dfas2) {
+		boolean[][] matrix = new boolean[dfas1.size()][dfas2.size()];
+		for(int i = 0; i < dfas1.size(); i++)
+			for(int j = 0; j < dfas2.size(); j++)
+				matrix[i][j] = DFAAlgorithms.decidesSubset(dfas1.get(i), dfas2.get(j));
+		return matrix;
+	}
+
+	/**
+	 * @return the array whose j-th entry is true if the j-th column of the matrix has a true entry
+	 */
+	private static boolean[] getImplied(boolean[][] matrix, int columns) {
+		boolean[] implied = new boolean[columns];
+		for(int j = 0; j < columns; j++)
+			for(int i = 0; i < matrix.length && !implied[j]; i++)
+				implied[j] = matrix[i][j];
+		return implied;
+	}
+
+	private static boolean allTrue(boolean[] values) {
+		for(boolean value: values)
+			if(!value)
+				return false;
+		return true;
+	}
+}
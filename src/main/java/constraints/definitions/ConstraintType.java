@@ -47,6 +47,16 @@ public enum ConstraintType {
 		return false;
 	}
 	
+	/**
+	 * @return true if the dfa of a constraint of this type loops in every state on every activity that is not a parameter of the constraint
+	 */
+	public boolean ignoresOtherActivities() {
+		if(this == INIT || this == LAST || this == CHAIN_PRECEDENCE || this == CHAIN_RESPONSE
+				|| this == CHAIN_SUCCESSION || this == NOT_CHAIN_SUCCESSION)
+			return false;
+		return true;
+	}
+	
 	public boolean areValidParameters(List<Symbol> symbolParameters, int intParameter) {
 		if(isUnary() && symbolParameters.size() == 1)
 			return true;
@@ -0,0 +1,223 @@
+package constraints.generation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import constraints.definitions.Constraint;
+import data.algorithms.DFAAlgorithms;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.Symbol;
+
+/**
+ * This class caches the minimized dfas of conjunctions of constraints, so families of similar models can share their common parts.
+ * An entry is identified by the alphabet and the canonical form of the conjunction: its distinct constraints in sorted order.
+ * The entries of every alphabet are the nodes of a trie over the canonical forms. A conjunction is built from the largest cached
+ * conjunction of a subset of its constraints, which is found by following only the trie edges of its own constraints.
+ * The remaining constraints are multiplied in at once and only the resulting conjunction is cached.
+ * The cache is bounded by the total number of states of the cached dfas, the least recently used entries are evicted first.
+ * All methods are thread-safe. The trie is searched without holding the lock, only the bookkeeping of the entries is synchronized.
+ */
+public class ConjunctionCache {
+
+	private static final String EMSG1 = "The input parameters must not be null!";
+	private static final String EMSG2 = "The maximum number of states must be > 0!";
+	private static final String EMSG3 = "The conjunction must contain at least one constraint!";
+
+	private final Map<Set<Symbol>,Node> roots;
+	private final Map<Node,DFA> entries;
+	private final int maxStates;
+	private int totalStates;
+	private long hits;
+	private long partialHits;
+	private long misses;
+
+	/**
+	 * @param maxStates the maximum total number of states of all cached dfas
+	 */
+	public ConjunctionCache(int maxStates) {
+		if(maxStates <= 0)
+			throw new IllegalArgumentException(EMSG2);
+		this.maxStates = maxStates;
+		roots = new ConcurrentHashMap<>();
+		entries = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the minimized dfa of the conjunction of the given constraints over the given alphabet.
+	 * Cached dfas are shared, they must not be modified.
+	 * @param alphabetSet the alphabet of the dfa
+	 * @param constraints the constraints of the conjunction. Must contain at least one constraint.
+	 * @return the complete minimized dfa of the conjunction
+	 */
+	public DFA getDFA(Set<Symbol> alphabetSet, Collection<Constraint> constraints) {
+		if(alphabetSet == null || constraints == null)
+			throw new IllegalArgumentException(EMSG1);
+		if(constraints.isEmpty())
+			throw new IllegalArgumentException(EMSG3);
+
+		Set<Symbol> alphabet = new HashSet<>(alphabetSet);
+		TreeMap<ConstraintKey,Constraint> canonical = new TreeMap<>();
+		for(Constraint constraint: constraints)
+			canonical.putIfAbsent(new ConstraintKey(constraint), constraint);
+		List<ConstraintKey> keys = new ArrayList<>(canonical.keySet());
+
+		Node root = roots.computeIfAbsent(alphabet, a -> new Node(null, null, 0));
+		Node best = findLargestSubset(root, keys, 0, null);
+		DFA dfa = best == null ? null : best.dfa;
+		synchronized(this) {
+			if(dfa == null)
+				misses++;
+			else if(best.depth == keys.size())
+				hits++;
+			else
+				partialHits++;
+			if(dfa != null)
+				entries.get(best);
+		}
+		if(dfa != null && best.depth == keys.size())
+			return DFAAlgorithms.getCompleteDFA(dfa);
+
+		List<DFA> dfas = new ArrayList<>(keys.size() + 1);
+		if(dfa != null)
+			dfas.add(dfa);
+		Set<ConstraintKey> covered = dfa == null ? new HashSet<>() : best.getConstraints();
+		for(Map.Entry<ConstraintKey,Constraint> constraint: canonical.entrySet())
+			if(!covered.contains(constraint.getKey()))
+				dfas.add(ConstraintDFAGenerator.getCache().getDFA(alphabet, constraint.getValue()));
+		dfa = dfas.size() == 1 ? dfas.get(0) : DFAAlgorithms.minimizedProductDFA(dfas);
+		put(root, keys, dfa);
+		return DFAAlgorithms.getCompleteDFA(dfa);
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of conjunctions that were built from a cached conjunction of a subset of their constraints
+	 */
+	public synchronized long getPartialHits() {
+		return partialHits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the total number of states of all cached dfas
+	 */
+	public synchronized int getTotalStates() {
+		return totalStates;
+	}
+
+	public int getMaxStates() {
+		return maxStates;
+	}
+
+	/**
+	 * Removes all entries and resets the counters.
+	 */
+	public synchronized void clear() {
+		for(Node node: entries.keySet())
+			node.dfa = null;
+		entries.clear();
+		roots.clear();
+		totalStates = 0;
+		hits = 0;
+		partialHits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Searches the trie depth first for the deepest node with a dfa whose path only uses the given keys.
+	 * A branch is cut as soon as it cannot get deeper than the best node found so far.
+	 * @param keys the canonical form of the conjunction
+	 * @param from the index of the first key that may follow the path of the node
+	 * @return the best node or null if no cached conjunction is a subset of the keys
+	 */
+	private static Node findLargestSubset(Node node, List<ConstraintKey> keys, int from, Node best) {
+		for(int i = from; i < keys.size(); i++) {
+			if(best != null && node.depth + keys.size() - i <= best.depth)
+				break;
+			Node child = node.children.get(keys.get(i));
+			if(child == null)
+				continue;
+			if(child.dfa != null && (best == null || child.depth > best.depth))
+				best = child;
+			best = findLargestSubset(child, keys, i + 1, best);
+		}
+		return best;
+	}
+
+	private synchronized void put(Node root, List<ConstraintKey> keys, DFA dfa) {
+		int states = dfa.getStates().size();
+		if(states > maxStates)
+			return;
+		Node node = root;
+		for(ConstraintKey key: keys) {
+			Node parent = node;
+			node = parent.children.computeIfAbsent(key, k -> new Node(parent, k, parent.depth + 1));
+		}
+		DFA old = entries.put(node, dfa);
+		node.dfa = dfa;
+		totalStates += states - (old == null ? 0 : old.getStates().size());
+		for(Iterator<Node> eldest = entries.keySet().iterator(); totalStates > maxStates; ) {
+			Node evicted = eldest.next();
+			totalStates -= evicted.dfa.getStates().size();
+			eldest.remove();
+			evicted.dfa = null;
+			evicted.prune();
+		}
+	}
+
+	/**
+	 * A node of the trie. Its path from the root is the canonical form of a conjunction, it holds the dfa of the conjunction if it is cached.
+	 * Nodes are created and removed while holding the lock of the cache, the children and the dfa can be read without it.
+	 */
+	private static class Node {
+
+		private final Node parent;
+		private final ConstraintKey key;
+		private final int depth;
+		private final Map<ConstraintKey,Node> children;
+		private volatile DFA dfa;
+
+		Node(Node parent, ConstraintKey key, int depth) {
+			this.parent = parent;
+			this.key = key;
+			this.depth = depth;
+			children = new ConcurrentHashMap<>();
+		}
+
+		/**
+		 * @return the constraints on the path of this node
+		 */
+		Set<ConstraintKey> getConstraints() {
+			Set<ConstraintKey> constraints = new HashSet<>();
+			for(Node node = this; node.parent != null; node = node.parent)
+				constraints.add(node.key);
+			return constraints;
+		}
+
+		/**
+		 * Removes this node and its ancestors from the trie as long as they have neither a dfa nor children.
+		 */
+		void prune() {
+			for(Node node = this; node.parent != null && node.dfa == null && node.children.isEmpty(); node = node.parent)
+				node.parent.children.remove(node.key);
+		}
+	}
+}
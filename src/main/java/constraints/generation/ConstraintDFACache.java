@@ -0,0 +1,123 @@
+package constraints.generation;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import constraints.definitions.Constraint;
+import data.algorithms.DFAAlgorithms;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.Symbol;
+
+/**
+ * This class caches the complete minimized dfas of constraints.
+ * An entry is identified by the constraint type, the symbol parameters, the integer parameter and the alphabet of the dfa.
+ * The cache holds a bounded number of entries, the least recently used entry is evicted first.
+ * All methods are thread-safe.
+ */
+public class ConstraintDFACache {
+
+	private static final String EMSG1 = "The input parameters must not be null!";
+	private static final String EMSG2 = "The capacity must be > 0!";
+
+	private final Map<Key,DFA> entries;
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param capacity the maximum number of cached dfas
+	 */
+	public ConstraintDFACache(int capacity) {
+		if(capacity <= 0)
+			throw new IllegalArgumentException(EMSG2);
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			/**
+			 *
+			 */
+			private static final long serialVersionUID = -2364718650357914470L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key,DFA> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the complete minimized dfa of a constraint over the given alphabet.
+	 * The dfa is generated and cached if it is not cached yet. Cached dfas are shared, they must not be modified.
+	 * @param alphabetSet the alphabet of the dfa
+	 * @param constraint the constraint
+	 * @return the complete minimized dfa of the constraint
+	 */
+	public DFA getDFA(Set<Symbol> alphabetSet, Constraint constraint) {
+		if(alphabetSet == null || constraint == null)
+			throw new IllegalArgumentException(EMSG1);
+		Key key = new Key(alphabetSet, constraint);
+		synchronized(this) {
+			DFA dfa = entries.get(key);
+			if(dfa != null) {
+				hits++;
+				return dfa;
+			}
+			misses++;
+		}
+		/*
+		 * The dfa is generated outside of the lock, so other threads are not blocked.
+		 * If two threads miss the same key at the same time, both generate the same dfa and the last one is kept.
+		 */
+		DFA dfa = DFAAlgorithms.getCompleteMinimizedDFA(ConstraintDFAGenerator.generateDFA(alphabetSet, constraint));
+		synchronized(this) {
+			entries.put(key, dfa);
+		}
+		return dfa;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Removes all entries and resets the counters.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+	private static class Key {
+
+		private final ConstraintKey constraint;
+		private final Set<Symbol> alphabet;
+
+		Key(Set<Symbol> alphabetSet, Constraint constraint) {
+			this.constraint = new ConstraintKey(constraint);
+			alphabet = new HashSet<>(alphabetSet);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof Key))
+				return false;
+			Key key = (Key) o;
+			return constraint.equals(key.constraint) && alphabet.equals(key.alphabet);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(constraint, alphabet);
+		}
+	}
+}
@@ -3,13 +3,21 @@ package constraints.generation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 
 import constraints.definitions.Constraint;
 import constraints.definitions.ModelDefinition;
 import data.algorithms.DFAAlgorithms;
+import data.algorithms.util.OrderedProduct;
+import data.algorithms.util.PDFALanguageType;
+import data.algorithms.util.ProductOrder;
 import data.algorithms.util.SetOperations;
 import data.automaton.definitions.*;
 import data.automaton.implementations.*;
@@ -26,20 +34,176 @@ public class ConstraintDFAGenerator {
 	private static final String EMSG2 = "The label(s) must included in the alphabet!";
 	private static final String EMSG3 = "N must be > 0!";
 	
+	private static final int CACHE_CAPACITY = 1024;
+	private static final ConstraintDFACache CACHE = new ConstraintDFACache(CACHE_CAPACITY);
+	
 	private ConstraintDFAGenerator() {}
 	
+	/**
+	 * All model level methods take their constraint dfas from this cache.
+	 * @return the cache of complete minimized constraint dfas
+	 */
+	public static ConstraintDFACache getCache() {
+		return CACHE;
+	}
+	
+	/**
+	 * Generates the dfa of a model.
+	 * All constraint dfas, the product and its minimization are built over the reduced alphabet of the model (see getReducedAlphabet).
+	 * Only the resulting dfa is expanded to all activities of the model.
+	 * If the model is inconsistent because one constraint dfa starts in a dead state, the product is not searched at all,
+	 * and an inconsistent product is not minimized (see DFAAlgorithms.minimizedProductDFA).
+	 * @param definition the model
+	 * @return a complete minimized dfa for the model
+	 */
 	public static DFA generateDFA(ModelDefinition definition) {
 		if(definition == null)
 			throw new IllegalArgumentException("This method does not allow null parameters!");
 		
-		List<DFA> dfas = new ArrayList<>(definition.getConstraints().size());
-		for(Constraint constraint: definition.getConstraints())
-			dfas.add(generateDFA(definition.getActivities(),constraint));
+		List<DFA> dfas = generateDFAs(definition);
+		if(dfas.size() == 1)
+			return expandAlphabet(definition, dfas.get(0));
+		else
+			return expandAlphabet(definition, DFAAlgorithms.getCompleteDFA(DFAAlgorithms.minimizedProductDFA(dfas)));
+	}
+	
+	/**
+	 * Finds the constraints that make a model inconsistent. The constraint dfas are intersected one after another in the order of the model
+	 * and every intermediate product is minimized. As soon as it decides the empty set the remaining constraints are skipped.
+	 * @param definition the model
+	 * @return the constraints up to and including the one that made the model inconsistent or an empty optional if the model is consistent
+	 */
+	public static Optional<List<Constraint>> getInconsistentPrefix(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		
+		Set<Symbol> alphabet = getReducedAlphabet(definition);
+		List<Constraint> prefix = new ArrayList<>(definition.getConstraints().size());
+		DFA dfa = null;
+		for(Constraint constraint: definition.getConstraints()) {
+			DFA constraintDFA = CACHE.getDFA(alphabet,constraint);
+			dfa = dfa == null ? constraintDFA : DFAAlgorithms.minimizeDFA(DFAAlgorithms.productDFA(dfa, constraintDFA, PDFALanguageType.INTERSECTION));
+			prefix.add(constraint);
+			if(dfa.getAcceptingStates().isEmpty())
+				return Optional.of(prefix);
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * Generates the dfa of a model by multiplying the constraint dfas one after another in the order of the given strategy.
+	 * @param definition the model
+	 * @param order the strategy that orders the constraint dfas
+	 * @return a complete minimized dfa for the model and the number of states of every intermediate product
+	 */
+	public static OrderedProduct generateOrderedProduct(ModelDefinition definition, ProductOrder order) {
+		if(definition == null || order == null)
+			throw new IllegalArgumentException(EMSG1);
+		
+		List<DFA> dfas = generateDFAs(definition);
+		if(dfas.size() == 1)
+			return new OrderedProduct(expandAlphabet(definition, dfas.get(0)), Collections.emptyList());
+		OrderedProduct product = DFAAlgorithms.orderedProductDFA(dfas, order);
+		return new OrderedProduct(expandAlphabet(definition, DFAAlgorithms.getCompleteDFA(product.getDFA())), product.getIntermediateSizes());
+	}
+	
+	/**
+	 * Generates the dfa of a model by reducing the constraint dfas as a balanced binary tree in parallel.
+	 * @param definition the model
+	 * @param parallelism the number of worker threads, at least 1
+	 * @return a complete minimized dfa for the model
+	 */
+	public static DFA generateDFA(ModelDefinition definition, int parallelism) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
 		
+		List<DFA> dfas = generateDFAs(definition);
 		if(dfas.size() == 1)
-			return dfas.get(0);
+			return expandAlphabet(definition, dfas.get(0));
 		else
-			return DFAAlgorithms.getCompleteDFA(DFAAlgorithms.minimizedProductDFA(dfas));
+			return expandAlphabet(definition, DFAAlgorithms.getCompleteDFA(DFAAlgorithms.parallelMinimizedProductDFA(dfas, parallelism)));
+	}
+	
+	/**
+	 * Generates the dfa of a model from the conjunctions in the given cache.
+	 * The model reuses the largest cached conjunction of a subset of its constraints (see ConjunctionCache),
+	 * so families of models that share most of their constraints only multiply in the constraints they differ in.
+	 * The conjunctions are built over all activities of the model, not over its reduced alphabet: the reduced alphabet changes
+	 * with the activities a variant mentions, which would split the family over unrelated entries of the cache.
+	 * @param definition the model
+	 * @param cache the cache of conjunctions
+	 * @return a complete minimized dfa for the model
+	 */
+	public static DFA generateDFA(ModelDefinition definition, ConjunctionCache cache) {
+		if(definition == null || cache == null)
+			throw new IllegalArgumentException(EMSG1);
+		
+		return cache.getDFA(definition.getActivities(), definition.getConstraints());
+	}
+	
+	/**
+	 * Partitions the activities of a model by their mention signature: the set of pairs of a constraint and a parameter position
+	 * in which the activity occurs. Every constraint dfa treats activities with the same signature alike, so each class can be
+	 * replaced by one representative (the activity with the smallest character).
+	 * The position is part of the signature, since a constraint treats its parameters differently. Two activities therefore only share
+	 * a signature if no constraint mentions either of them, so the activities that are not mentioned form the only class with more than one activity.
+	 * @param definition the model
+	 * @return a map that assigns every activity of the model the representative of its class
+	 */
+	public static Map<Symbol,Symbol> getRepresentatives(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		Map<Symbol,Set<BinaryTuple<ConstraintKey,Integer>>> signatures = new HashMap<>();
+		for(Symbol activity: definition.getActivities())
+			signatures.put(activity, new HashSet<>());
+		for(Constraint constraint: definition.getConstraints()) {
+			ConstraintKey key = new ConstraintKey(constraint);
+			List<Symbol> parameters = constraint.getSymbolParameters();
+			for(int position = 0; position < parameters.size(); position++)
+				if(signatures.containsKey(parameters.get(position)))
+					signatures.get(parameters.get(position)).add(MathFactory.createBinaryTuple(key, position));
+		}
+		
+		Map<Set<BinaryTuple<ConstraintKey,Integer>>,Symbol> classes = new HashMap<>();
+		for(Map.Entry<Symbol,Set<BinaryTuple<ConstraintKey,Integer>>> signature: signatures.entrySet())
+			classes.merge(signature.getValue(), signature.getKey(), (s1, s2) -> s1.getChar() < s2.getChar() ? s1 : s2);
+		Map<Symbol,Symbol> representatives = new HashMap<>();
+		for(Map.Entry<Symbol,Set<BinaryTuple<ConstraintKey,Integer>>> signature: signatures.entrySet())
+			representatives.put(signature.getKey(), classes.get(signature.getValue()));
+		return representatives;
+	}
+	
+	/**
+	 * The reduced alphabet of a model consists of the representatives of its activity classes (see getRepresentatives).
+	 * @param definition the model
+	 * @return the reduced alphabet
+	 */
+	public static Set<Symbol> getReducedAlphabet(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		return new HashSet<>(getRepresentatives(definition).values());
+	}
+	
+	private static List<DFA> generateDFAs(ModelDefinition definition) {
+		Set<Symbol> alphabet = getReducedAlphabet(definition);
+		List<DFA> dfas = new ArrayList<>(definition.getConstraints().size());
+		for(Constraint constraint: definition.getConstraints())
+			dfas.add(CACHE.getDFA(alphabet,constraint));
+		return dfas;
+	}
+	
+	/**
+	 * Expands a dfa over the reduced alphabet of a model to all activities of the model.
+	 * Every activity that is not in the reduced alphabet gets the transitions of the representative of its class.
+	 */
+	private static DFA expandAlphabet(ModelDefinition definition, DFA dfa) {
+		Map<Symbol,Set<Symbol>> copies = new TreeMap<>(Comparator.comparing(Symbol::getChar));
+		for(Map.Entry<Symbol,Symbol> representative: getRepresentatives(definition).entrySet())
+			if(!representative.getKey().equals(representative.getValue()))
+				copies.computeIfAbsent(representative.getValue(), r -> new HashSet<>()).add(representative.getKey());
+		for(Map.Entry<Symbol,Set<Symbol>> copy: copies.entrySet())
+			dfa = DFAAlgorithms.getDFAWithSymbolCopies(dfa, copy.getKey(), copy.getValue());
+		return dfa;
 	}
 	
 	public static DFA generateDFA(Set<Symbol> alphabetSet, Constraint constraint) {
@@ -0,0 +1,51 @@
+package constraints.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import constraints.definitions.Constraint;
+import constraints.definitions.ConstraintType;
+import data.automaton.definitions.Symbol;
+
+/**
+ * Value of a constraint: its type, its symbol parameters and its integer parameter. Two constraints with equal keys decide the same language.
+ * Keys are ordered by type, then by the characters of the symbol parameters, then by the integer parameter.
+ */
+public class ConstraintKey implements Comparable<ConstraintKey> {
+
+	private final ConstraintType type;
+	private final List<Symbol> symbolParameters;
+	private final int integerParameter;
+
+	public ConstraintKey(Constraint constraint) {
+		type = constraint.getConstraintType();
+		symbolParameters = new ArrayList<>(constraint.getSymbolParameters());
+		integerParameter = constraint.getIntegerParameter();
+	}
+
+	@Override
+	public int compareTo(ConstraintKey key) {
+		if(type != key.type)
+			return type.compareTo(key.type);
+		for(int i = 0; i < symbolParameters.size() && i < key.symbolParameters.size(); i++)
+			if(symbolParameters.get(i).getChar() != key.symbolParameters.get(i).getChar())
+				return Character.compare(symbolParameters.get(i).getChar(), key.symbolParameters.get(i).getChar());
+		if(symbolParameters.size() != key.symbolParameters.size())
+			return Integer.compare(symbolParameters.size(), key.symbolParameters.size());
+		return Integer.compare(integerParameter, key.integerParameter);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(!(o instanceof ConstraintKey))
+			return false;
+		ConstraintKey key = (ConstraintKey) o;
+		return type == key.type && integerParameter == key.integerParameter && symbolParameters.equals(key.symbolParameters);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, symbolParameters, integerParameter);
+	}
+}
@@ -0,0 +1,190 @@
+package constraints.generation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import constraints.definitions.Constraint;
+import constraints.definitions.ModelDefinition;
+import constraints.implementations.ConstraintFactory;
+import data.algorithms.DFAAlgorithms;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.Symbol;
+
+/**
+ * This class splits models into independent parts.
+ * Two constraints are connected if they share an activity. The components of a model are the connected groups of its constraints.
+ */
+public class ModelDecomposition {
+
+	private static final String EMSG1 = "The input parameters must not be null!";
+
+	private ModelDecomposition() {}
+
+	/**
+	 * Splits a model into the connected components of its constraint/activity graph.
+	 * Every component is a model with all activities of the input model and the constraints of the component.
+	 * The components are ordered by the smallest character of their activities.
+	 * @param definition the model to split
+	 * @return the components of the model
+	 */
+	public static List<ModelDefinition> getComponents(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+
+		Map<Symbol,Symbol> parents = new HashMap<>();
+		for(Constraint constraint: definition.getConstraints()) {
+			Symbol first = constraint.getSymbolParameters().get(0);
+			for(Symbol symbol: constraint.getSymbolParameters())
+				union(parents, first, symbol);
+		}
+
+		List<Constraint> sorted = new ArrayList<>(definition.getConstraints());
+		Map<Symbol,Character> smallest = new HashMap<>();
+		for(Symbol symbol: parents.keySet())
+			smallest.merge(find(parents, symbol), symbol.getChar(), (c1, c2) -> c1 < c2 ? c1 : c2);
+		sorted.sort(Comparator.comparing(constraint -> smallest.get(find(parents, constraint.getSymbolParameters().get(0)))));
+
+		Map<Symbol,List<Constraint>> components = new LinkedHashMap<>();
+		for(Constraint constraint: sorted)
+			components.computeIfAbsent(find(parents, constraint.getSymbolParameters().get(0)), root -> new ArrayList<>()).add(constraint);
+
+		List<ModelDefinition> models = new ArrayList<>(components.size());
+		for(List<Constraint> constraints: components.values())
+			models.add(ConstraintFactory.createModelDefinition(definition.getActivities(), constraints));
+		return models;
+	}
+
+	/**
+	 * Returns the activities of a model that are mentioned by its constraints.
+	 * @param definition the model
+	 * @return the mentioned activities
+	 */
+	public static Set<Symbol> getMentionedActivities(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		Set<Symbol> mentioned = new HashSet<>();
+		for(Constraint constraint: definition.getConstraints())
+			mentioned.addAll(constraint.getSymbolParameters());
+		mentioned.retainAll(definition.getActivities());
+		return mentioned;
+	}
+
+	/**
+	 * Decides the equivalence of two models component by component without building the dfa of either model.
+	 * This is only possible if the components of both models align (see areAligned).
+	 * @param model1 the first model
+	 * @param model2 the second model
+	 * @return whether or not the models are equivalent or an empty optional if the components of the models do not align
+	 */
+	public static Optional<Boolean> areEquivalent(ModelDefinition model1, ModelDefinition model2) {
+		if(!areAligned(model1, model2))
+			return Optional.empty();
+		return Optional.of(areEquivalent(getComponentDFAs(model1), getComponentDFAs(model2)));
+	}
+
+	/**
+	 * Checks without building any dfa whether two models can be compared component by component.
+	 * This is the case if both models have the same activities, their components mention the same groups of activities
+	 * and every constraint ignores the activities it does not mention (see ConstraintType.ignoresOtherActivities).
+	 * Then every component dfa ignores the activities outside its group and every model decides the words whose projections
+	 * to the groups are accepted by the components.
+	 * @param model1 the first model
+	 * @param model2 the second model
+	 * @return true if the components of both models align
+	 */
+	public static boolean areAligned(ModelDefinition model1, ModelDefinition model2) {
+		if(model1 == null || model2 == null)
+			throw new IllegalArgumentException(EMSG1);
+		if(!model1.getActivities().equals(model2.getActivities()))
+			return false;
+		for(ModelDefinition model: Arrays.asList(model1, model2))
+			for(Constraint constraint: model.getConstraints())
+				if(!constraint.getConstraintType().ignoresOtherActivities())
+					return false;
+
+		List<ModelDefinition> components1 = getComponents(model1);
+		List<ModelDefinition> components2 = getComponents(model2);
+		if(components1.size() != components2.size())
+			return false;
+		for(int i = 0; i < components1.size(); i++)
+			if(!getMentionedActivities(components1.get(i)).equals(getMentionedActivities(components2.get(i))))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Generates the dfas of the components of a model in the order of getComponents.
+	 * @param definition the model
+	 * @return a complete minimized dfa for every component
+	 */
+	public static List<DFA> getComponentDFAs(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		List<DFA> dfas = new ArrayList<>();
+		for(ModelDefinition component: getComponents(definition))
+			dfas.add(ConstraintDFAGenerator.generateDFA(component));
+		return dfas;
+	}
+
+	/**
+	 * Decides the equivalence of two aligned models from the dfas of their components (see areAligned and getComponentDFAs).
+	 * A model is empty if one of its components is empty, otherwise it determines all of its components.
+	 * @param components1 the component dfas of the first model
+	 * @param components2 the component dfas of the second model, in the same order of groups
+	 * @return true if the models are equivalent
+	 */
+	public static boolean areEquivalent(List<DFA> components1, List<DFA> components2) {
+		if(components1 == null || components2 == null)
+			throw new IllegalArgumentException(EMSG1);
+		if(components1.size() != components2.size())
+			throw new IllegalArgumentException("The models must have the same number of components!");
+		boolean empty1 = false;
+		boolean empty2 = false;
+		boolean equal = true;
+		for(int i = 0; i < components1.size(); i++) {
+			empty1 |= components1.get(i).getAcceptingStates().isEmpty();
+			empty2 |= components2.get(i).getAcceptingStates().isEmpty();
+			equal = equal && DFAAlgorithms.areEquivalent(components1.get(i), components2.get(i));
+		}
+		if(empty1 || empty2)
+			return empty1 && empty2;
+		return equal;
+	}
+
+	/**
+	 * Builds the dfa of a model from the dfas of its components.
+	 * @param components the component dfas of the model (see getComponentDFAs), at least one
+	 * @return a complete minimized dfa for the model
+	 */
+	public static DFA getModelDFA(List<DFA> components) {
+		if(components == null || components.isEmpty())
+			throw new IllegalArgumentException("The model must have at least one component!");
+		if(components.size() == 1)
+			return components.get(0);
+		return DFAAlgorithms.getCompleteDFA(DFAAlgorithms.minimizedProductDFA(components));
+	}
+
+	private static void union(Map<Symbol,Symbol> parents, Symbol symbol1, Symbol symbol2) {
+		Symbol root1 = find(parents, symbol1);
+		Symbol root2 = find(parents, symbol2);
+		if(!root1.equals(root2))
+			parents.put(root2, root1);
+	}
+
+	private static Symbol find(Map<Symbol,Symbol> parents, Symbol symbol) {
+		parents.putIfAbsent(symbol, symbol);
+		Symbol root = symbol;
+		while(!parents.get(root).equals(root))
+			root = parents.get(root);
+		parents.put(symbol, root);
+		return root;
+	}
+}
@@ -0,0 +1,265 @@
+package constraints.generation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import constraints.definitions.Constraint;
+import constraints.definitions.ModelDefinition;
+import constraints.implementations.ConstraintFactory;
+import data.algorithms.DFAAlgorithms;
+import data.algorithms.util.PDFALanguageType;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.Symbol;
+import data.automaton.implementations.AutomatonFactory;
+
+/**
+ * This class keeps the minimized dfa of a model that is edited one constraint at a time.
+ * All dfas are built over a reduced alphabet: it starts as the reduced alphabet of the initial model (see ConstraintDFAGenerator.getReducedAlphabet),
+ * so the constraint dfas are shared with generateDFA in the cache of ConstraintDFAGenerator. The activities outside the reduced alphabet
+ * are not mentioned by any constraint and behave like one representative in every dfa. The reduced alphabet only grows: if an added constraint
+ * mentions an activity outside of it or the representative, these activities are added to all dfas as copies of the representative.
+ * Only the dfa of the model is expanded to all activities.
+ * The constraints are the leaves of a binary tree of partial products (the slot of a removed constraint is an empty leaf
+ * that is reused by the next added constraint). Every inner node holds the minimized product of its subtree or nothing if it is outdated.
+ * Adding a constraint multiplies it into the dfa of the model (one product), removing a constraint only recomputes the
+ * outdated nodes on the path from its leaf to the root.
+ * Optionally, a session holds a fixed reference model whose dfa is built only once.
+ */
+public class ModelSession {
+
+	private static final String EMSG1 = "The input parameters must not be null!";
+	private static final String EMSG2 = "The label(s) must included in the alphabet!";
+
+	private final Set<Symbol> activities;
+	private final Set<Symbol> reducedAlphabet;
+	private Optional<Symbol> representative;
+
+	private Constraint[] constraints;
+	private DFA[] nodes;
+	private boolean[] outdated;
+	private int capacity;
+	private int size;
+	private final Deque<Integer> freeSlots;
+
+	private DFA dfa;
+
+	private Optional<ModelDefinition> reference;
+	private Optional<DFA> referenceDFA;
+
+	/**
+	 * Creates a session that starts with the constraints of the given model.
+	 * @param definition the initial model
+	 */
+	public ModelSession(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		activities = new HashSet<>(definition.getActivities());
+		Map<Symbol,Symbol> representatives = ConstraintDFAGenerator.getRepresentatives(definition);
+		reducedAlphabet = new HashSet<>(representatives.values());
+		representative = Optional.empty();
+		for(Map.Entry<Symbol,Symbol> entry: representatives.entrySet())
+			if(!entry.getKey().equals(entry.getValue()))
+				representative = Optional.of(entry.getValue());
+		capacity = 1;
+		while(capacity < definition.getConstraints().size())
+			capacity <<= 1;
+		constraints = new Constraint[capacity];
+		nodes = new DFA[2 * capacity];
+		outdated = new boolean[2 * capacity];
+		freeSlots = new ArrayDeque<>();
+		reference = Optional.empty();
+		referenceDFA = Optional.empty();
+		for(Constraint constraint: definition.getConstraints())
+			addConstraint(constraint);
+	}
+
+	/**
+	 * Adds a constraint to the model. The dfa of the model is updated with one product and one minimization.
+	 * @param constraint the constraint to add
+	 */
+	public void addConstraint(Constraint constraint) {
+		if(constraint == null)
+			throw new IllegalArgumentException(EMSG1);
+		if(!activities.containsAll(constraint.getSymbolParameters()))
+			throw new IllegalArgumentException(EMSG2);
+
+		if(freeSlots.isEmpty() && size == capacity)
+			grow();
+		int slot = freeSlots.isEmpty() ? size : freeSlots.pop();
+		size++;
+		constraints[slot] = constraint;
+		extendReducedAlphabet(constraint);
+		DFA constraintDFA = ConstraintDFAGenerator.getCache().getDFA(reducedAlphabet, constraint);
+		setLeaf(slot, constraintDFA);
+		if(dfa != null)
+			dfa = DFAAlgorithms.minimizeDFA(DFAAlgorithms.productDFA(dfa, constraintDFA, PDFALanguageType.INTERSECTION));
+	}
+
+	/**
+	 * Removes a constraint from the model. Only the partial products that contain the constraint are recomputed.
+	 * @param constraint the constraint to remove (compared by type and parameters)
+	 * @return true if the model contained the constraint
+	 */
+	public boolean removeConstraint(Constraint constraint) {
+		if(constraint == null)
+			throw new IllegalArgumentException(EMSG1);
+		ConstraintKey key = new ConstraintKey(constraint);
+		for(int slot = 0; slot < capacity; slot++)
+			if(constraints[slot] != null && key.equals(new ConstraintKey(constraints[slot]))) {
+				constraints[slot] = null;
+				size--;
+				freeSlots.push(slot);
+				setLeaf(slot, null);
+				dfa = null;
+				return true;
+			}
+		return false;
+	}
+
+	/**
+	 * @return the current model
+	 */
+	public ModelDefinition getModel() {
+		return ConstraintFactory.createModelDefinition(activities, getConstraints());
+	}
+
+	/**
+	 * @return the constraints of the current model in the order of their slots
+	 */
+	public List<Constraint> getConstraints() {
+		List<Constraint> list = new ArrayList<>(size);
+		for(Constraint constraint: constraints)
+			if(constraint != null)
+				list.add(constraint);
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * @return a complete minimized dfa for the current model
+	 */
+	public DFA getDFA() {
+		if(dfa == null) {
+			DFA root = getNode(1);
+			dfa = root == null ? AutomatonFactory.createKleeneStartDFA(AutomatonFactory.createAlphabet(reducedAlphabet)) : root;
+		}
+		DFA complete = DFAAlgorithms.getCompleteDFA(dfa);
+		if(representative.isEmpty())
+			return complete;
+		Set<Symbol> copies = new HashSet<>(activities);
+		copies.removeAll(reducedAlphabet);
+		return DFAAlgorithms.getDFAWithSymbolCopies(complete, representative.get(), copies);
+	}
+
+	/**
+	 * Sets the fixed model that the current model is compared to. Its dfa is built on the first request.
+	 * @param definition the reference model
+	 */
+	public void setReference(ModelDefinition definition) {
+		if(definition == null)
+			throw new IllegalArgumentException(EMSG1);
+		reference = Optional.of(definition);
+		referenceDFA = Optional.empty();
+	}
+
+	public Optional<ModelDefinition> getReference() {
+		return reference;
+	}
+
+	/**
+	 * @return the dfa of the reference model or an empty optional if no reference model is set
+	 */
+	public Optional<DFA> getReferenceDFA() {
+		if(referenceDFA.isEmpty() && reference.isPresent())
+			referenceDFA = Optional.of(ConstraintDFAGenerator.generateDFA(reference.get()));
+		return referenceDFA;
+	}
+
+	/**
+	 * Adds the activities of a constraint that are outside the reduced alphabet to all dfas, before the dfa of the constraint is built.
+	 * If the constraint mentions the representative, the smallest activity outside the reduced alphabet that the constraint does not mention
+	 * becomes the new representative and is added as well. The added activities are copies of the old representative in every dfa.
+	 */
+	private void extendReducedAlphabet(Constraint constraint) {
+		if(representative.isEmpty())
+			return;
+		Symbol old = representative.get();
+		Set<Symbol> added = new HashSet<>();
+		for(Symbol activity: constraint.getSymbolParameters())
+			if(!reducedAlphabet.contains(activity))
+				added.add(activity);
+		if(constraint.getSymbolParameters().contains(old)) {
+			representative = Optional.empty();
+			for(Symbol activity: activities)
+				if(!reducedAlphabet.contains(activity) && !added.contains(activity)
+						&& (representative.isEmpty() || activity.getChar() < representative.get().getChar()))
+					representative = Optional.of(activity);
+			if(representative.isPresent())
+				added.add(representative.get());
+		}
+		if(added.isEmpty())
+			return;
+		reducedAlphabet.addAll(added);
+		for(int node = 1; node < nodes.length; node++)
+			if(nodes[node] != null)
+				nodes[node] = DFAAlgorithms.getDFAWithSymbolCopies(nodes[node], old, added);
+		if(dfa != null)
+			dfa = DFAAlgorithms.getDFAWithSymbolCopies(dfa, old, added);
+	}
+
+	/**
+	 * Sets a leaf and marks all nodes above it as outdated.
+	 */
+	private void setLeaf(int slot, DFA leaf) {
+		int node = capacity + slot;
+		nodes[node] = leaf;
+		for(node >>>= 1; node > 0; node >>>= 1)
+			outdated[node] = true;
+	}
+
+	/**
+	 * Returns the minimized product of the subtree of a node, recomputing outdated nodes.
+	 * @return the product or null if the subtree has no constraints
+	 */
+	private DFA getNode(int node) {
+		if(node >= capacity || !outdated[node])
+			return nodes[node];
+		DFA left = getNode(2 * node);
+		DFA right = getNode(2 * node + 1);
+		if(left == null || right == null)
+			nodes[node] = left == null ? right : left;
+		else
+			nodes[node] = DFAAlgorithms.minimizeDFA(DFAAlgorithms.productDFA(left, right, PDFALanguageType.INTERSECTION));
+		outdated[node] = false;
+		return nodes[node];
+	}
+
+	/**
+	 * Doubles the number of leaves. The old tree becomes the left subtree of the new root.
+	 */
+	private void grow() {
+		DFA[] oldNodes = nodes;
+		boolean[] oldOutdated = outdated;
+		int oldCapacity = capacity;
+		capacity <<= 1;
+		Constraint[] oldConstraints = constraints;
+		constraints = new Constraint[capacity];
+		System.arraycopy(oldConstraints, 0, constraints, 0, oldCapacity);
+		nodes = new DFA[2 * capacity];
+		outdated = new boolean[2 * capacity];
+		/*
+		 * The nodes of level l start at index 2^l. Every level of the old tree keeps its nodes at the front of the next level.
+		 */
+		for(int level = 1; level <= oldCapacity; level <<= 1) {
+			System.arraycopy(oldNodes, level, nodes, 2 * level, level);
+			System.arraycopy(oldOutdated, level, outdated, 2 * level, level);
+		}
+		outdated[1] = true;
+	}
+}
@@ -1,11 +1,21 @@
 package data.algorithms;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
+import data.algorithms.util.OrderedProduct;
 import data.algorithms.util.PDFALanguageType;
+import data.algorithms.util.ProductOrder;
+import data.algorithms.util.SetOperations;
+import data.automaton.definitions.Alphabet;
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
+import data.automaton.definitions.ProductDFA;
 import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
 import data.automaton.implementations.AutomatonFactory;
 import data.exceptions.DFASEqualException;
 import data.regex.definitions.Regex;
@@ -41,9 +51,20 @@ public class DFAAlgorithms {
 	public static boolean areEquivalent(DFA dfa1, DFA dfa2) {
 		if(dfa1 == null || dfa2 == null)
 			throw new IllegalArgumentException(EMSG2);
-		return (minimizeDFA(
-				productDFA(getCompleteMinimizedDFA(dfa1),getCompleteMinimizedDFA(dfa2), PDFALanguageType.SYMMETRICDIFFERENCE)
-				).getAcceptingStates().isEmpty());
+		return !DFAEquivalence.getDistinguishingWord(dfa1, dfa2).isPresent();
+	}
+	
+	/**
+	 * Returns a word that is accepted by exactly one of the two DFAs.
+	 * The DFAs are compared directly with the union-find algorithm of Hopcroft and Karp, no product DFA is built.
+	 * @param dfa1 first dfa
+	 * @param dfa2 second dfa
+	 * @return a word in the symmetric difference of both languages or an empty optional if the DFAs are equivalent
+	 */
+	public static Optional<String> getDistinguishingWord(DFA dfa1, DFA dfa2) {
+		if(dfa1 == null || dfa2 == null)
+			throw new IllegalArgumentException(EMSG2);
+		return DFAEquivalence.getDistinguishingWord(dfa1, dfa2);
 	}
 	
 	/**
@@ -55,14 +76,12 @@ public class DFAAlgorithms {
 	 * @return a word that is accepted by dfa1 and rejected by dfs2
 	 */
 	public static String getWordAcceptedByOneRejectedByTwo(DFA dfa1, DFA dfa2) throws DFASEqualException{
-		if(decidesSubset(dfa1,dfa2))
+		if(dfa1 == null || dfa2 == null)
+			throw new IllegalArgumentException(EMSG2);
+		Optional<String> word = DFAEquivalence.getShortestWord(dfa1, dfa2, PDFALanguageType.ONEMINUSTWO);
+		if(!word.isPresent())
 			throw new DFASEqualException("The first dfa decides a subset of the second dfa's language!");
-		DFA product = minimizeDFA(productDFADifference(getCompleteMinimizedDFA(dfa1),getCompleteMinimizedDFA(dfa2)));
-		for(int i = 0; true; i++) {
-			Set<String> accepted = product.acceptsOfLength(i);
-			if(!accepted.isEmpty())
-				return accepted.iterator().next();
-		}
+		return word.get();
 	}
 
 	/**
@@ -74,8 +93,7 @@ public class DFAAlgorithms {
 	public static boolean decidesSubsetBidirectional(DFA dfa1, DFA dfa2) {
 		if(dfa1 == null || dfa2 == null)
 			throw new IllegalArgumentException(EMSG2);
-		return minimizeDFA(productDFADifference(getCompleteMinimizedDFA(dfa1),getCompleteMinimizedDFA(dfa2))).getAcceptingStates().isEmpty()
-				|| minimizeDFA(productDFADifference(getCompleteMinimizedDFA(dfa2),getCompleteMinimizedDFA(dfa1))).getAcceptingStates().isEmpty();
+		return decidesSubset(dfa1, dfa2) || decidesSubset(dfa2, dfa1);
 	}
 	
 	/**
@@ -87,9 +105,7 @@ public class DFAAlgorithms {
 	public static boolean decidesSubset(DFA dfa1, DFA dfa2) {
 		if(dfa1 == null || dfa2 == null)
 			throw new IllegalArgumentException(EMSG2);
-		return minimizeDFA(
-				productDFADifference(getCompleteMinimizedDFA(dfa1),getCompleteMinimizedDFA(dfa2))
-				).getAcceptingStates().isEmpty();
+		return !DFAEquivalence.getShortestWord(dfa1, dfa2, PDFALanguageType.ONEMINUSTWO).isPresent();
 	}
 	
 	/**
@@ -101,14 +117,66 @@ public class DFAAlgorithms {
 	public static DFA getComplementDFA(DFA dfa) {
 		if(dfa == null)
 			throw new IllegalArgumentException(EMSG1);
-		DFA cdfa = getCompleteDFA(dfa);
-		return AutomatonFactory.createDFA(cdfa.getStates(),cdfa.getAlphabet(),cdfa.getTransitionFunction(),cdfa.getStartState(),cdfa.getNonAcceptingStates());
+		IndexedDFA cdfa = AutomatonFactory.createIndexedDFA(getCompleteDFA(dfa));
+		List<State> states = new ArrayList<>(cdfa.getStateCount());
+		List<Symbol> symbols = new ArrayList<>(cdfa.getSymbolCount());
+		int[] table = new int[cdfa.getStateCount() * cdfa.getSymbolCount()];
+		boolean[] accepting = new boolean[cdfa.getStateCount()];
+		for(int symbol = 0; symbol < cdfa.getSymbolCount(); symbol++)
+			symbols.add(cdfa.getSymbol(symbol));
+		for(int state = 0; state < cdfa.getStateCount(); state++) {
+			states.add(cdfa.getState(state));
+			accepting[state] = !cdfa.isAccepting(state);
+			for(int symbol = 0; symbol < cdfa.getSymbolCount(); symbol++)
+				table[state * cdfa.getSymbolCount() + symbol] = cdfa.next(state, symbol);
+		}
+		return AutomatonFactory.createIndexedDFA(states,symbols,table,cdfa.getStartIndex(),accepting);
+	}
+	
+	/**
+	 * Creates a dfa whose alphabet is extended by copies of a symbol. Every copy has the same transitions as the symbol.
+	 * This expands a dfa that was built over one representative symbol for a class of interchangeable symbols to all symbols of the class.
+	 * @param dfa the dfa to extend
+	 * @param symbol the symbol to copy. Has to be in the alphabet of the dfa.
+	 * @param copies the new symbols. They must not be in the alphabet of the dfa.
+	 * @return a new dfa over the extended alphabet
+	 */
+	public static DFA getDFAWithSymbolCopies(DFA dfa, Symbol symbol, Set<Symbol> copies) {
+		if(dfa == null || symbol == null || copies == null)
+			throw new IllegalArgumentException("The input parameters must not be null!");
+		IndexedDFA idfa = AutomatonFactory.createIndexedDFA(dfa);
+		if(idfa.indexOf(symbol) < 0)
+			throw new IllegalArgumentException("The symbol must be in the alphabet of the dfa!");
+		for(Symbol copy: copies)
+			if(copy == null || idfa.indexOf(copy) >= 0)
+				throw new IllegalArgumentException("The copies must not be null or in the alphabet of the dfa!");
+		
+		List<Symbol> symbols = new ArrayList<>(dfa.getAlphabet().getSymbols());
+		symbols.addAll(copies);
+		symbols.sort(Comparator.comparing(Symbol::getChar));
+		int k = symbols.size();
+		int[] mapping = new int[k];
+		for(int i = 0; i < k; i++)
+			mapping[i] = copies.contains(symbols.get(i)) ? idfa.indexOf(symbol) : idfa.indexOf(symbols.get(i));
+		
+		List<State> states = new ArrayList<>(idfa.getStateCount());
+		int[] table = new int[idfa.getStateCount() * k];
+		boolean[] accepting = new boolean[idfa.getStateCount()];
+		for(int state = 0; state < idfa.getStateCount(); state++) {
+			states.add(idfa.getState(state));
+			accepting[state] = idfa.isAccepting(state);
+			for(int i = 0; i < k; i++)
+				table[state * k + i] = idfa.next(state, mapping[i]);
+		}
+		return AutomatonFactory.createIndexedDFA(states,symbols,table,idfa.getStartIndex(),accepting);
 	}
 	
 	/**
 	 * This method take a List of n DFAs and returns a minimized DFA
-	 * for the language L(dfa1) intersect ... intersect L(dfan). Before each iteration and at the end
-	 * the resulting dfas are minimized.  
+	 * for the language L(dfa1) intersect ... intersect L(dfan). All dfas are multiplied at once in a single
+	 * n-ary product of the reachable state tuples, which is minimized at the end.
+	 * The product is not searched if a start state is dead and not minimized if it has no accepting state,
+	 * in both cases a dfa deciding the empty set is returned.
 	 * @param dfas the list of dfas to be multiplied in order
 	 * @return the dfa as described above
 	 */
@@ -120,16 +188,16 @@ public class DFAAlgorithms {
 		if(dfas.size() < 2)
 			throw new IllegalArgumentException("The input dfa list must contain at least 2 dfas!");
 		
-		DFA dfa = dfas.get(0);
-		for(int i = 1; i < dfas.size(); i++) 
-			dfa = productDFA(getCompleteMinimizedDFA(dfa),getCompleteMinimizedDFA(dfas.get(i)),PDFALanguageType.INTERSECTION);
-		return minimizeDFA(dfa);
+		IndexedDFA product = DFAProduct.productDFA(dfas, PDFALanguageType.INTERSECTION);
+		if(product.getAcceptingStates().isEmpty())
+			return AutomatonFactory.createEmptySetDFA(product.getAlphabet());
+		return minimizeDFA(product);
 	}
 	
 	/**
 	 * This method take a List of n DFAs and returns a minimized DFA
-	 * for the language L(dfa1) intersect ... intersect L(dfan). Before each iteration and at the end
-	 * the resulting dfas are minimized.  
+	 * for the language that results from folding the dfas from left to right with the product type.
+	 * All dfas are multiplied at once in a single n-ary product of the reachable state tuples, which is minimized at the end.
 	 * @param dfas the list of dfas to be multiplied in order
 	 * @param type the type of accepting state generation
 	 * @return the dfa as described above
@@ -144,10 +212,78 @@ public class DFAAlgorithms {
 		if(type == null)
 			throw new IllegalArgumentException("The type must not be null!");
 		
-		DFA dfa = dfas.get(0);
-		for(int i = 1; i < dfas.size(); i++) 
-			dfa = productDFA(getCompleteMinimizedDFA(dfa),getCompleteMinimizedDFA(dfas.get(i)),type);
-		return minimizeDFA(dfa);
+		return minimizeDFA(DFAProduct.productDFA(dfas, type));
+	}
+
+	/**
+	 * This method take a List of n DFAs and returns a minimized DFA
+	 * for the language L(dfa1) intersect ... intersect L(dfan). The dfas are ordered by the given strategy
+	 * and then multiplied one after another (see orderedProductDFA).
+	 * @param dfas the list of dfas to be multiplied
+	 * @param order the strategy that defines the order of multiplication
+	 * @return the dfa as described above
+	 */
+	public static DFA minimizedProductDFA(List<DFA> dfas, ProductOrder order) {
+		return orderedProductDFA(dfas, order).getDFA();
+	}
+
+	/**
+	 * This method take a List of n DFAs and returns a minimized DFA
+	 * for the language L(dfa1) intersect ... intersect L(dfan) together with the sizes of the intermediate products.
+	 * The dfas are ordered by the given strategy and then multiplied one after another.
+	 * Every intermediate product is minimized before the next dfa is multiplied.
+	 * If an intermediate product decides the empty set, the remaining dfas are skipped and a dfa deciding the empty set is returned.
+	 * @param dfas the list of dfas to be multiplied
+	 * @param order the strategy that defines the order of multiplication
+	 * @return the dfa as described above and the number of states of every intermediate product (before its minimization)
+	 */
+	public static OrderedProduct orderedProductDFA(List<DFA> dfas, ProductOrder order) {
+		if(dfas == null)
+			throw new IllegalArgumentException("The input dfa list must not be null!");
+		if(dfas.contains(null))
+			throw new IllegalArgumentException("The input dfa list must not contain null!");
+		if(dfas.size() < 2)
+			throw new IllegalArgumentException("The input dfa list must contain at least 2 dfas!");
+		if(order == null)
+			throw new IllegalArgumentException("The product order must not be null!");
+		
+		List<DFA> ordered = order.order(dfas);
+		List<Integer> intermediateSizes = new ArrayList<>(ordered.size() - 1);
+		DFA dfa = minimizeDFA(ordered.get(0));
+		for(int i = 1; i < ordered.size(); i++) {
+			DFA product = productDFA(dfa, minimizeDFA(ordered.get(i)), PDFALanguageType.INTERSECTION);
+			intermediateSizes.add(product.getStates().size());
+			dfa = minimizeDFA(product);
+			if(dfa.getAcceptingStates().isEmpty())
+				break;
+		}
+		if(dfa.getAcceptingStates().isEmpty()) {
+			Alphabet alphabet = dfas.get(0).getAlphabet();
+			for(DFA input: dfas)
+				alphabet = SetOperations.unionAlphabet(alphabet, input.getAlphabet());
+			return new OrderedProduct(AutomatonFactory.createEmptySetDFA(alphabet), intermediateSizes);
+		}
+		return new OrderedProduct(dfa, intermediateSizes);
+	}
+
+	/**
+	 * This method take a List of n DFAs and returns a minimized DFA
+	 * for the language L(dfa1) intersect ... intersect L(dfan). The list is reduced as a balanced binary tree
+	 * whose nodes are computed in parallel on a fork/join pool. Every intermediate product is minimized.
+	 * @param dfas the list of dfas to be multiplied
+	 * @param parallelism the number of worker threads, at least 1
+	 * @return the dfa as described above
+	 */
+	public static DFA parallelMinimizedProductDFA(List<DFA> dfas, int parallelism) {
+		if(dfas == null)
+			throw new IllegalArgumentException("The input dfa list must not be null!");
+		if(dfas.contains(null))
+			throw new IllegalArgumentException("The input dfa list must not contain null!");
+		if(dfas.size() < 2)
+			throw new IllegalArgumentException("The input dfa list must contain at least 2 dfas!");
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be at least 1!");
+		return DFAParallelProduct.minimizedProductDFA(new ArrayList<>(dfas), parallelism);
 	}
 
 	/**
@@ -184,9 +320,9 @@ public class DFAAlgorithms {
 	 * @param dfa2 the second dfa of the operation
 	 * @param type defines the language of the P-DFA
 	 * @throws IllegalArgumentException if the alphabets of the input dfas are not equal.
-	 * @return the product dfa
+	 * @return the product dfa. It also keeps whether the states of both dfas in every pair state are accepting.
 	 */
-	public static DFA productDFA(DFA dfa1, DFA dfa2, PDFALanguageType type) {
+	public static ProductDFA productDFA(DFA dfa1, DFA dfa2, PDFALanguageType type) {
 		if(dfa1 == null || dfa2 == null)
 			throw new IllegalArgumentException(EMSG2);
 		if(type == null)
@@ -195,27 +331,45 @@ public class DFAAlgorithms {
 	}	
 	
 	/**
-	 * This method first completes the given dfa, then minimizes it and then (if the resulting dfa is not complete) makes it complete.
-	 * The resulting dfa is most likely no longer minimized.
+	 * This method minimizes the given dfa and then (if the resulting dfa is not complete) makes it complete.
+	 * The minimized dfa has no dead states, so at most one trash state is added and the result is the minimal complete dfa.
 	 * @param dfa the dfa to reduce
-	 * @return a complete dfa that is very close to being minimized.
+	 * @return the minimal complete dfa.
 	 */
 	public static DFA getCompleteMinimizedDFA(DFA dfa) {
 		if(dfa == null)
 			throw new IllegalArgumentException(EMSG1);		
-		return getCompleteDFA(minimizeDFA(getCompleteDFA(dfa)));
+		return getCompleteDFA(minimizeDFA(dfa));
 	}
 	
 	/**
-	 * This method returns a minimized equivalent DFA using the hopcroft minimization algorithm
-	 * and the algorithms for removing dead and unreachable states.
+	 * This method returns a minimized equivalent DFA. The result has neither unreachable nor dead states and is therefore in general not complete
+	 * (see getCompleteMinimizedDFA). If the input decides the empty set, a dfa with one state, no accepting states and no transitions is returned.
+	 * Sparse dfas (less than half of the transitions defined) are minimized without completing them with the algorithm of Valmari and Lehtinen.
+	 * All other dfas are minimized with the hopcroft minimization algorithm, which leaves at most one dead state that is removed afterwards.
+	 * Both algorithms therefore return the same dfa up to the names of the states.
 	 * @param dfa the dfa to minimize
 	 * @return a new dfa, that is minimized and equivalent to the input dfa
 	 */
 	public static DFA minimizeDFA(DFA dfa) {
 		if(dfa == null)
 			throw new IllegalArgumentException(EMSG1);
-		return DFAMinimization.minimizeDFA(dfa);
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		if(DFAMinimization.isSparse(indexedDFA))
+			return DFAMinimization.minimizePartialDFA(indexedDFA);
+		return DFAMinimization.removeDeadStates(DFAMinimization.minimizeDFA(indexedDFA));
+	}
+	
+	/**
+	 * This method returns a minimized equivalent DFA using the algorithm of Valmari and Lehtinen on the partial transition function.
+	 * The dfa is not completed, the result has neither unreachable nor dead states and is in general not complete.
+	 * @param dfa the dfa to minimize
+	 * @return a new dfa, that is minimized and equivalent to the input dfa
+	 */
+	public static DFA minimizePartialDFA(DFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException(EMSG1);
+		return DFAMinimization.minimizePartialDFA(dfa);
 	}
 
 	/**
@@ -229,6 +383,18 @@ public class DFAAlgorithms {
 		return DFAMinimization.removeDeadStates(dfa);
 	}
 
+	/**
+	 * This method returns a reduced equivalent DFA that has unreachable and dead states removed in one pass.
+	 * Dead states are found by one backward search from all accepting states at once.
+	 * @param dfa the dfa that is supposed to be reduced
+	 * @return a new equivalent dfa in which every state is reachable and can reach an accepting state
+	 */
+	public static DFA trimDFA(DFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException(EMSG1);
+		return DFAMinimization.trim(dfa);
+	}
+
 	/**
 	 * This method returns a reduced equivalent DFA that has unreachable states removed.
 	 * @param dfa the dfa that is supposed to be reduced
@@ -250,6 +416,18 @@ public class DFAAlgorithms {
 			throw new IllegalArgumentException(EMSG1);
 		return DFAMinimization.hopcroftMinimization(dfa);
 	}
+
+	/**
+	 * This algorithm returns the equivalence classes for the Myhill-Nerode equivalence relation of the input DFA as class numbers. 
+	 * Undefined transitions are treated as transitions into a trash state.
+	 * @param dfa the dfa for which equivalence classes are constructed
+	 * @return an array classOf, classOf[i] being the number of the equivalence class of the state with ordinal i. The classes are numbered 0 ... c-1.
+	 */
+	public static int[] hopcroftClassIndices(IndexedDFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException(EMSG1);
+		return DFAMinimization.hopcroftClassIndices(dfa);
+	}
 	
 
 	/**
@@ -273,7 +451,8 @@ public class DFAAlgorithms {
 	
 	/**
 	 * This method returns a complete dfa equivalent to the given dfa. 
-	 * It creates and adds a trash state for this purpose except if the given dfa is complete already.
+	 * A non accepting state without outgoing transitions is used as trash state.
+	 * Otherwise it creates and adds a trash state for this purpose except if the given dfa is complete already.
 	 * @param dfa the dfa to create a complete version for.
 	 * @return a new complete dfa
 	 */
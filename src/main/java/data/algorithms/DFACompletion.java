@@ -1,14 +1,13 @@
 package data.algorithms;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
 import data.automaton.implementations.AutomatonFactory;
-import data.math.definitions.BinaryTuple;
-import data.math.implementations.MathFactory;
 
 public class DFACompletion {
 	private static final String EMSG1 = "The input dfa must not be null!"; 
@@ -33,42 +32,59 @@ public class DFACompletion {
 		if(trash == null)
 			throw new IllegalArgumentException("The trash state must not be null!");
 		
-		if(dfa.getStates().contains(trash)) {
-			if(dfa.getAcceptingStates().contains(trash))
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		int trashIndex = indexedDFA.indexOf(trash);
+		if(trashIndex >= 0) {
+			if(indexedDFA.isAccepting(trashIndex))
 				throw new IllegalArgumentException("The trash state is in the state set and accepting!");
-			dfa.getTransitionFunction().getTuples().forEach(n->{
-				if(n.getFirst().getFirst().equals(trash) && !n.getSecond().equals(trash))
+			for(int symbol = 0; symbol < indexedDFA.getSymbolCount(); symbol++) {
+				int target = indexedDFA.next(trashIndex, symbol);
+				if(target >= 0 && target != trashIndex)
 					throw new IllegalArgumentException("The trash state is in the state set and has outgoing transitions!");
-				});
+			}
 		}
 		
-		if(dfa.isComplete())
-			return AutomatonFactory.createDFA(dfa);
+		if(indexedDFA.isComplete())
+			return indexedDFA;
 		
-		return getCompleteDFAUtil(dfa,trash);
+		return getCompleteDFAUtil(indexedDFA,trash,trashIndex);
 	}
 	
 	/**
 	 * Utility method for getCompleteDFA.
 	 * This method does the actual work of the getCompleteDFA method.
+	 * Every undefined entry of the transition table is directed to the trash state.
 	 */
-	private static DFA getCompleteDFAUtil(DFA dfa, State trash) {
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> transitions = new HashSet<>(dfa.getTransitionFunction().getTuples());
-		Set<State> states = new HashSet<>(dfa.getStates());
-		states.add(trash);
+	private static IndexedDFA getCompleteDFAUtil(IndexedDFA dfa, State trash, int trashIndex) {
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		List<State> states = new ArrayList<>(n + 1);
+		for(int state = 0; state < n; state++)
+			states.add(dfa.getState(state));
+		if(trashIndex < 0) {
+			trashIndex = n;
+			states.add(trash);
+		}
+		List<Symbol> symbols = new ArrayList<>(k);
+		for(int symbol = 0; symbol < k; symbol++)
+			symbols.add(dfa.getSymbol(symbol));
 		
-		for(State state: dfa.getStates())
-			for(Symbol symbol: dfa.getAlphabet())
-				if(!dfa.getTransitionFunction().getDomain().contains(MathFactory.createBinaryTuple(state, symbol)))
-					transitions.add(MathFactory.createTransition(state, symbol, trash));
-		for(Symbol symbol: dfa.getAlphabet())
-			transitions.add(MathFactory.createTransition(trash, symbol, trash));
-		return AutomatonFactory.createDFA(states, dfa.getAlphabet(), MathFactory.createTransitionFunction(transitions), dfa.getStartState(), dfa.getAcceptingStates());
+		int[] table = new int[states.size() * k];
+		boolean[] accepting = new boolean[states.size()];
+		for(int state = 0; state < states.size(); state++) {
+			accepting[state] = state < n && dfa.isAccepting(state);
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = state < n ? dfa.next(state, symbol) : -1;
+				table[state * k + symbol] = target < 0 ? trashIndex : target;
+			}
+		}
+		return AutomatonFactory.createIndexedDFA(states, symbols, table, dfa.getStartIndex(), accepting);
 	}
 	
 	/**
 	 * This method returns a complete dfa equivalent to the given dfa. 
-	 * It creates and adds a trash state for this purpose except if the given dfa is complete already.
+	 * A non accepting state without outgoing transitions already is a trash state and is used as such.
+	 * Otherwise it creates and adds a trash state for this purpose except if the given dfa is complete already.
 	 * @param dfa the dfa to create a complete version for.
 	 * @return a new complete dfa
 	 */
@@ -76,7 +92,18 @@ public class DFACompletion {
 		if(dfa == null)
 			throw new IllegalArgumentException(EMSG1);
 
-		return getCompleteDFA(dfa,AutomatonFactory.createState(getTrashStateName(dfa)));
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		for(int state = 0; state < indexedDFA.getStateCount(); state++)
+			if(!indexedDFA.isAccepting(state) && hasNoTransitions(indexedDFA, state))
+				return getCompleteDFA(indexedDFA,indexedDFA.getState(state));
+		return getCompleteDFA(indexedDFA,AutomatonFactory.createState(getTrashStateName(dfa)));
+	}
+	
+	private static boolean hasNoTransitions(IndexedDFA dfa, int state) {
+		for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++)
+			if(dfa.next(state, symbol) >= 0)
+				return false;
+		return true;
 	}
 	
 	/**
@@ -0,0 +1,204 @@
+package data.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import data.algorithms.util.PDFALanguageType;
+import data.algorithms.util.SetOperations;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
+import data.automaton.definitions.Symbol;
+import data.automaton.implementations.AutomatonFactory;
+
+class DFAEquivalence {
+
+	private DFAEquivalence() {}
+
+	/**
+	 * This method decides the equivalence of two dfas with the union-find algorithm of Hopcroft and Karp.
+	 * It works on both dfas directly, no product dfa is built and nothing is minimized.
+	 * Both dfas are read over the union of their alphabets. Undefined transitions lead to an implicit non accepting sink.
+	 * @param dfa1 the first dfa
+	 * @param dfa2 the second dfa
+	 * @return an empty optional if both dfas decide the same language, otherwise a word that is accepted by exactly one of them
+	 */
+	static Optional<String> getDistinguishingWord(DFA dfa1, DFA dfa2) {
+		IndexedDFA first = AutomatonFactory.createIndexedDFA(dfa1);
+		IndexedDFA second = AutomatonFactory.createIndexedDFA(dfa2);
+		List<Symbol> symbols = getUnionSymbols(dfa1, dfa2);
+		int k = symbols.size();
+		int n1 = first.getStateCount();
+		int n2 = second.getStateCount();
+		int[] symbols1 = getSymbolMapping(first, symbols);
+		int[] symbols2 = getSymbolMapping(second, symbols);
+
+		/*
+		 * The states of the first dfa are the elements 0 ... n1 (n1 being its sink),
+		 * the states of the second dfa are the elements n1 + 1 ... n1 + n2 + 1 (n1 + n2 + 1 being its sink).
+		 * Every pair that is pushed merges two classes, so at most n1 + n2 + 1 pairs are pushed.
+		 */
+		int[] parents = new int[n1 + n2 + 2];
+		int[] sizes = new int[n1 + n2 + 2];
+		for(int element = 0; element < parents.length; element++) {
+			parents[element] = element;
+			sizes[element] = 1;
+		}
+		int[] pairFirst = new int[n1 + n2 + 2];
+		int[] pairSecond = new int[n1 + n2 + 2];
+		int[] pairOrigin = new int[n1 + n2 + 2];
+		int[] pairSymbol = new int[n1 + n2 + 2];
+		int size = 0;
+
+		pairFirst[size] = first.getStartIndex();
+		pairSecond[size] = second.getStartIndex();
+		pairOrigin[size++] = -1;
+		union(parents, sizes, first.getStartIndex(), n1 + 1 + second.getStartIndex());
+		for(int head = 0; head < size; head++) {
+			int state1 = pairFirst[head];
+			int state2 = pairSecond[head];
+			if((state1 < n1 && first.isAccepting(state1)) != (state2 < n2 && second.isAccepting(state2)))
+				return Optional.of(getWord(symbols, pairOrigin, pairSymbol, head));
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target1 = getTarget(first, state1, symbols1[symbol]);
+				int target2 = getTarget(second, state2, symbols2[symbol]);
+				if(union(parents, sizes, target1, n1 + 1 + target2)) {
+					pairFirst[size] = target1;
+					pairSecond[size] = target2;
+					pairOrigin[size] = head;
+					pairSymbol[size++] = symbol;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * This method searches the product of two dfas breadth first for an accepting pair state. The product is never built,
+	 * pair states are only visited as they are reached. Acceptance of a pair is defined by the type parameter.
+	 * Both dfas are read over the union of their alphabets. Undefined transitions lead to an implicit non accepting sink.
+	 * @param dfa1 the first dfa
+	 * @param dfa2 the second dfa
+	 * @param type defines which pairs are accepting
+	 * @return a shortest word that leads to an accepting pair state or an empty optional if there is none
+	 */
+	static Optional<String> getShortestWord(DFA dfa1, DFA dfa2, PDFALanguageType type) {
+		IndexedDFA first = AutomatonFactory.createIndexedDFA(dfa1);
+		IndexedDFA second = AutomatonFactory.createIndexedDFA(dfa2);
+		List<Symbol> symbols = getUnionSymbols(dfa1, dfa2);
+		int k = symbols.size();
+		int n1 = first.getStateCount();
+		int n2 = second.getStateCount();
+		int[] symbols1 = getSymbolMapping(first, symbols);
+		int[] symbols2 = getSymbolMapping(second, symbols);
+		
+		/*
+		 * The pairs are numbered as they are discovered, the sinks being n1 and n2. The pair with ordinal p is stored in
+		 * pairs[2 * p] and pairs[2 * p + 1], its ordinal is found through an open addressing hash table.
+		 * pairOrigin and pairSymbol hold the parent pointer of every visited pair, the start pair has no parent (-1).
+		 * The ordinals serve as the breadth first worklist and all arrays grow with the number of discovered pairs.
+		 */
+		int[] pairs = new int[2 * 16];
+		int[] pairOrigin = new int[16];
+		int[] pairSymbol = new int[16];
+		int[] slots = new int[64];
+		Arrays.fill(slots, -1);
+		int size = 0;
+		
+		int[] pair = {first.getStartIndex(), second.getStartIndex()};
+		System.arraycopy(pair, 0, pairs, 0, 2);
+		slots[DFAProduct.findSlot(slots, pairs, pair, 2)] = size;
+		pairOrigin[size++] = -1;
+		for(int head = 0; head < size; head++) {
+			int state1 = pairs[2 * head];
+			int state2 = pairs[2 * head + 1];
+			if(type.isAccepting(state1 < n1 && first.isAccepting(state1), state2 < n2 && second.isAccepting(state2)))
+				return Optional.of(getWord(symbols, pairOrigin, pairSymbol, head));
+			for(int symbol = 0; symbol < k; symbol++) {
+				pair[0] = getTarget(first, state1, symbols1[symbol]);
+				pair[1] = getTarget(second, state2, symbols2[symbol]);
+				int slot = DFAProduct.findSlot(slots, pairs, pair, 2);
+				if(slots[slot] < 0) {
+					if(size == pairOrigin.length) {
+						pairs = Arrays.copyOf(pairs, 4 * size);
+						pairOrigin = Arrays.copyOf(pairOrigin, 2 * size);
+						pairSymbol = Arrays.copyOf(pairSymbol, 2 * size);
+					}
+					System.arraycopy(pair, 0, pairs, 2 * size, 2);
+					slots[slot] = size;
+					pairOrigin[size] = head;
+					pairSymbol[size++] = symbol;
+					if(2 * size > slots.length)
+						slots = DFAProduct.rehash(slots, pairs, size, 2);
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the symbols of both alphabets ordered by their characters.
+	 */
+	private static List<Symbol> getUnionSymbols(DFA dfa1, DFA dfa2) {
+		List<Symbol> symbols = new ArrayList<>(SetOperations.unionAlphabet(dfa1.getAlphabet(),dfa2.getAlphabet()).getSymbols());
+		symbols.sort(Comparator.comparing(Symbol::getChar));
+		return symbols;
+	}
+
+	/**
+	 * Maps the given symbols to their ordinals in the given dfa (-1 if the symbol is not in its alphabet).
+	 */
+	private static int[] getSymbolMapping(IndexedDFA dfa, List<Symbol> symbols) {
+		int[] mapping = new int[symbols.size()];
+		for(int symbol = 0; symbol < symbols.size(); symbol++)
+			mapping[symbol] = dfa.indexOf(symbols.get(symbol));
+		return mapping;
+	}
+
+	/**
+	 * Returns the target of a transition with the implicit sink n as target of undefined transitions.
+	 */
+	private static int getTarget(IndexedDFA dfa, int state, int symbol) {
+		int target = state < dfa.getStateCount() && symbol >= 0 ? dfa.next(state, symbol) : -1;
+		return target < 0 ? dfa.getStateCount() : target;
+	}
+
+	/**
+	 * Merges the classes of two elements.
+	 * @return true if the elements were in different classes before
+	 */
+	private static boolean union(int[] parents, int[] sizes, int element1, int element2) {
+		int root1 = find(parents, element1);
+		int root2 = find(parents, element2);
+		if(root1 == root2)
+			return false;
+		if(sizes[root1] < sizes[root2]) {
+			int root = root1;
+			root1 = root2;
+			root2 = root;
+		}
+		parents[root2] = root1;
+		sizes[root1] += sizes[root2];
+		return true;
+	}
+
+	private static int find(int[] parents, int element) {
+		while(parents[element] != element) {
+			parents[element] = parents[parents[element]];
+			element = parents[element];
+		}
+		return element;
+	}
+
+	/**
+	 * Reads the word that leads from the start pair to the given pair by following the parent pointers.
+	 */
+	private static String getWord(List<Symbol> symbols, int[] pairOrigin, int[] pairSymbol, int pair) {
+		StringBuilder word = new StringBuilder();
+		for(; pairOrigin[pair] >= 0; pair = pairOrigin[pair])
+			word.append(symbols.get(pairSymbol[pair]).getChar());
+		return word.reverse().toString();
+	}
+}
@@ -1,18 +1,17 @@
 package data.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import data.algorithms.util.DFAUtil;
-import data.algorithms.util.SetOperations;
+import data.algorithms.util.DFATraversal;
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
 import data.automaton.implementations.AutomatonFactory;
-import data.math.definitions.BinaryTuple;
-import data.math.implementations.MathFactory;
 
 class DFAMinimization {
 	
@@ -24,42 +23,169 @@ class DFAMinimization {
 	 * @return a new dfa, that is minimized and equivalent to the input dfa
 	 */
 	static DFA minimizeDFA(DFA inputDfa) {
-		DFA dfa = DFAAlgorithms.getCompleteDFA(removeUnreachableStates(inputDfa));
-		List<Set<State>> classes = new ArrayList<>(hopcroftMinimization(dfa));
-
-		List<State> newStates = new ArrayList<>(dfa.getStates().size());
-		Set<State> newAccStates = new HashSet<>();
-		State newStartState = dfa.getStartState();
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> newTupels = new HashSet<>();
-		
-		for(Set<State> clas: classes) {
-			State newState = clas.iterator().next();
-			newStates.add(newState);
-			
-			if(dfa.getAcceptingStates().contains(newState))
-				newAccStates.add(newState);
-			
-			if(clas.contains(dfa.getStartState()))
-				newStartState = newState;
+		IndexedDFA dfa = AutomatonFactory.createIndexedDFA(DFAAlgorithms.getCompleteDFA(removeUnreachableStates(inputDfa)));
+		int[] classOf = hopcroftClassIndices(dfa);
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		
+		/*
+		 * The classes are numbered in order of their first state, so the representatives are found in one pass over the states.
+		 */
+		int classCount = 0;
+		int[] representatives = new int[n];
+		for(int state = 0; state < n; state++)
+			if(classOf[state] == classCount)
+				representatives[classCount++] = state;
+		
+		List<State> newStates = new ArrayList<>(classCount);
+		List<Symbol> symbols = new ArrayList<>(k);
+		int[] newTable = new int[classCount * k];
+		boolean[] newAccepting = new boolean[classCount];
+		for(int symbol = 0; symbol < k; symbol++)
+			symbols.add(dfa.getSymbol(symbol));
+		for(int clas = 0; clas < classCount; clas++) {
+			int representative = representatives[clas];
+			newStates.add(dfa.getState(representative));
+			newAccepting[clas] = dfa.isAccepting(representative);
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = dfa.next(representative, symbol);
+				newTable[clas * k + symbol] = target < 0 ? -1 : classOf[target];
+			}
 		}
-
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: dfa.getTransitionFunction().getTuples()) {
-			State newOrigin = null;
-			State newDestination = null;
-			
-			for(int i = 0; i < classes.size(); i++) {
-				if(classes.get(i).contains(tuple.getFirst().getFirst()))
-					newOrigin = newStates.get(i);
-				if(classes.get(i).contains(tuple.getSecond())) 
-					newDestination = newStates.get(i);
+		
+		return AutomatonFactory.createIndexedDFA(newStates, symbols, newTable, classOf[dfa.getStartIndex()], newAccepting);
+	}
+	
+	/**
+	 * This method returns a minimized equivalent DFA using the transition partition algorithm of Valmari and Lehtinen.
+	 * The algorithm works on the partial transition function, so the input is never completed.
+	 * The resulting dfa has neither unreachable nor dead states and is therefore in general not complete.
+	 * If the input decides the empty set, a dfa without accepting states and transitions is returned.
+	 * @param inputDfa the dfa to minimize
+	 * @return a new dfa, that is minimized and equivalent to the input dfa
+	 */
+	static DFA minimizePartialDFA(DFA inputDfa) {
+		IndexedDFA dfa = AutomatonFactory.createIndexedDFA(removeUnreachableStates(inputDfa));
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		
+		boolean[] live = DFATraversal.getCoReachable(dfa);
+		if(!live[dfa.getStartIndex()])
+			return AutomatonFactory.createEmptySetDFA(dfa.getAlphabet(), dfa.getStartState());
+		
+		int[] liveIndices = new int[n];
+		int[] liveStates = new int[n];
+		int liveCount = 0;
+		for(int state = 0; state < n; state++) {
+			liveIndices[state] = live[state] ? liveCount : -1;
+			if(live[state])
+				liveStates[liveCount++] = state;
+		}
+		
+		/*
+		 * The transitions between live states are numbered in order of their symbols, so every symbol owns a range of transition numbers.
+		 */
+		int[] symbolOffsets = new int[k + 1];
+		int[] tails = new int[liveCount * k];
+		int[] heads = new int[liveCount * k];
+		int m = 0;
+		for(int symbol = 0; symbol < k; symbol++) {
+			for(int state = 0; state < liveCount; state++) {
+				int target = dfa.next(liveStates[state], symbol);
+				if(target >= 0 && liveIndices[target] >= 0) {
+					tails[m] = state;
+					heads[m++] = liveIndices[target];
+				}
+			}
+			symbolOffsets[symbol + 1] = m;
+		}
+		
+		int[] transitionOffsets = new int[liveCount + 1];
+		for(int transition = 0; transition < m; transition++)
+			transitionOffsets[heads[transition] + 1]++;
+		for(int state = 0; state < liveCount; state++)
+			transitionOffsets[state + 1] += transitionOffsets[state];
+		int[] fill = Arrays.copyOf(transitionOffsets, liveCount);
+		int[] incomingTransitions = new int[m];
+		for(int transition = 0; transition < m; transition++)
+			incomingTransitions[fill[heads[transition]]++] = transition;
+		
+		RefinablePartition blocks = new RefinablePartition(liveCount);
+		for(int state = 0; state < liveCount; state++)
+			if(dfa.isAccepting(liveStates[state]))
+				blocks.mark(state);
+		blocks.split(null);
+		RefinablePartition cords = new RefinablePartition(m);
+		for(int symbol = 0; symbol < k; symbol++) {
+			for(int transition = symbolOffsets[symbol]; transition < symbolOffsets[symbol + 1]; transition++)
+				cords.mark(transition);
+			cords.split(null);
+		}
+		
+		/*
+		 * Every cord splits the blocks by the tails of its transitions and every new block splits the cords by the heads of their transitions.
+		 * Both partitions give the smaller part of a split the new number, so processing every number once in increasing order
+		 * only visits smaller halves, except for block 0 which does not need to be processed at all.
+		 */
+		int block = 1;
+		for(int cord = 0; cord < cords.getBlockCount(); cord++) {
+			int first = cords.getFirst(cord);
+			for(int position = first; position < first + cords.getSize(cord); position++)
+				blocks.mark(tails[cords.getElement(position)]);
+			blocks.split(null);
+			for(; block < blocks.getBlockCount(); block++) {
+				first = blocks.getFirst(block);
+				for(int position = first; position < first + blocks.getSize(block); position++) {
+					int state = blocks.getElement(position);
+					for(int i = transitionOffsets[state]; i < transitionOffsets[state + 1]; i++)
+						cords.mark(incomingTransitions[i]);
+				}
+				cords.split(null);
 			}
-			
-			newTupels.add(MathFactory.createBinaryTuple(
-					MathFactory.createBinaryTuple(newOrigin, tuple.getFirst().getSecond()),newDestination));
 		}
-			
 		
-		return AutomatonFactory.createDFA(new HashSet<>(newStates), dfa.getAlphabet(), MathFactory.createTransitionFunction(newTupels), newStartState, newAccStates);
+		int[] classIndices = new int[blocks.getBlockCount()];
+		Arrays.fill(classIndices, -1);
+		int[] representatives = new int[blocks.getBlockCount()];
+		int classCount = 0;
+		for(int state = 0; state < liveCount; state++)
+			if(classIndices[blocks.getBlock(state)] < 0) {
+				classIndices[blocks.getBlock(state)] = classCount;
+				representatives[classCount++] = state;
+			}
+		
+		List<State> newStates = new ArrayList<>(classCount);
+		List<Symbol> symbols = new ArrayList<>(k);
+		int[] newTable = new int[classCount * k];
+		boolean[] newAccepting = new boolean[classCount];
+		for(int symbol = 0; symbol < k; symbol++)
+			symbols.add(dfa.getSymbol(symbol));
+		for(int clas = 0; clas < classCount; clas++) {
+			int representative = liveStates[representatives[clas]];
+			newStates.add(dfa.getState(representative));
+			newAccepting[clas] = dfa.isAccepting(representative);
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = dfa.next(representative, symbol);
+				newTable[clas * k + symbol] = target < 0 || liveIndices[target] < 0 ? -1 : classIndices[blocks.getBlock(liveIndices[target])];
+			}
+		}
+		
+		return AutomatonFactory.createIndexedDFA(newStates, symbols, newTable, classIndices[blocks.getBlock(liveIndices[dfa.getStartIndex()])], newAccepting);
+	}
+	
+	/**
+	 * Decides whether a dfa is sparse enough to be minimized without completing it first.
+	 * This is the case if less than half of the entries of its transition table are defined.
+	 * @param dfa the dfa to check
+	 * @return true if and only if the dfa is sparse
+	 */
+	static boolean isSparse(IndexedDFA dfa) {
+		int defined = 0;
+		for(int state = 0; state < dfa.getStateCount(); state++)
+			for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++)
+				if(dfa.next(state, symbol) >= 0)
+					defined++;
+		return 2 * defined < dfa.getStateCount() * dfa.getSymbolCount();
 	}
 	
 	/**
@@ -69,33 +195,63 @@ class DFAMinimization {
 	 * @return a new equivalent dfa without dead states
 	 */
 	static DFA removeDeadStates(DFA dfa) {
-		Set<State> newStates = new HashSet<>(dfa.getStates());	
-		Set<State> newAcceptingStates = new HashSet<>(dfa.getAcceptingStates());
-		Set<State> toRemove = new HashSet<>(dfa.getStates());
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		boolean[] live = DFATraversal.getCoReachable(indexedDFA);
+		if(!live[indexedDFA.getStartIndex()])
+			return AutomatonFactory.createEmptySetDFA(dfa.getAlphabet(),dfa.getStartState());
+		return restrict(indexedDFA, live);
+	}
+	
+	/**
+	 * This method returns a reduced equivalent DFA that has unreachable and dead states removed.
+	 * If the start state is a dead state, then this method will return a minimized, equivalent dfa, that decides the empty set.
+	 * @param dfa the dfa that is supposed to be reduced
+	 * @return a new equivalent dfa in which every state is reachable and can reach an accepting state
+	 */
+	static DFA trim(DFA dfa) {
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		boolean[] keep = DFATraversal.getCoReachable(indexedDFA);
+		if(!keep[indexedDFA.getStartIndex()])
+			return AutomatonFactory.createEmptySetDFA(dfa.getAlphabet(),dfa.getStartState());
 		
 		/*
-		 * Be Di the set of states that cannot reach an accepting state i.
-		 * All dead states are included in Q intersect D0 intersect ... intersect Dn
+		 * A reachable state that is live is only reached over live states, so both searches can run independently.
 		 */
-		for(State acceptingState: dfa.getAcceptingStates()) {
-			toRemove = SetOperations.intersection(toRemove,DFAUtil.getAllNonReachingStates(dfa,acceptingState));
+		boolean[] reached = DFATraversal.getReachable(indexedDFA, indexedDFA.getStartIndex());
+		for(int state = 0; state < keep.length; state++)
+			keep[state] &= reached[state];
+		return restrict(indexedDFA, keep);
+	}
+	
+	/**
+	 * Restricts a dfa to the given states, transitions into other states become undefined. The start state must be kept.
+	 */
+	private static IndexedDFA restrict(IndexedDFA dfa, boolean[] keep) {
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		int[] newIndices = new int[n];
+		List<State> newStates = new ArrayList<>();
+		for(int state = 0; state < n; state++) {
+			newIndices[state] = keep[state] ? newStates.size() : -1;
+			if(keep[state])
+				newStates.add(dfa.getState(state));
 		}
 		
-		newAcceptingStates.removeAll(toRemove);
-		newStates.removeAll(toRemove);
-		
-		if(!newStates.contains(dfa.getStartState()))
-			return AutomatonFactory.createEmptySetDFA(dfa.getAlphabet(),dfa.getStartState());
-		
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> newTupels = new HashSet<>();
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tupel: dfa.getTransitionFunction().getTuples())
-			if(newStates.contains(tupel.getFirst().getFirst()) && newStates.contains(tupel.getSecond()))
-				newTupels.add(tupel);		
-		
-		return AutomatonFactory.createDFA(newStates, 
-				AutomatonFactory.createAlphabet(dfa.getAlphabet()), 
-				MathFactory.createTransitionFunction(newTupels), 
-				dfa.getStartState(), newAcceptingStates);
+		List<Symbol> symbols = new ArrayList<>(k);
+		for(int symbol = 0; symbol < k; symbol++)
+			symbols.add(dfa.getSymbol(symbol));
+		int[] newTable = new int[newStates.size() * k];
+		boolean[] newAccepting = new boolean[newStates.size()];
+		for(int state = 0; state < n; state++) {
+			if(!keep[state])
+				continue;
+			newAccepting[newIndices[state]] = dfa.isAccepting(state);
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = dfa.next(state, symbol);
+				newTable[newIndices[state] * k + symbol] = target < 0 ? -1 : newIndices[target];
+			}
+		}
+		return AutomatonFactory.createIndexedDFA(newStates, symbols, newTable, newIndices[dfa.getStartIndex()], newAccepting);
 	}
 
 	/**
@@ -104,22 +260,41 @@ class DFAMinimization {
 	 * @return a new equivalent dfa without unreachable states
 	 */
 	static DFA removeUnreachableStates(DFA dfa) {
-		Set<State> newStates = new HashSet<>(dfa.getStates());	
-		Set<State> newAcceptingStates = new HashSet<>(dfa.getAcceptingStates());	
-		Set<State> toRemove = DFAUtil.getAllUnReachableStates(dfa,dfa.getStartState());
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		int n = indexedDFA.getStateCount();
+		int k = indexedDFA.getSymbolCount();
 		
-		newStates.removeAll(toRemove);
-		newAcceptingStates.removeAll(toRemove);
-
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> newTupels = new HashSet<>(dfa.getTransitionFunction().getTuples());
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tupel: dfa.getTransitionFunction().getTuples())
-			if(!newStates.contains(tupel.getFirst().getFirst()) || !newStates.contains(tupel.getSecond()))
-				newTupels.remove(tupel);		
-		
-		return AutomatonFactory.createDFA(newStates, 
-				AutomatonFactory.createAlphabet(dfa.getAlphabet()), 
-				MathFactory.createTransitionFunction(newTupels), 
-				dfa.getStartState(), newAcceptingStates);
+		int[] newIndices = new int[n];
+		Arrays.fill(newIndices, -1);
+		int[] queue = new int[n];
+		int size = 0;
+		queue[size++] = indexedDFA.getStartIndex();
+		newIndices[indexedDFA.getStartIndex()] = 0;
+		for(int head = 0; head < size; head++)
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = indexedDFA.next(queue[head], symbol);
+				if(target >= 0 && newIndices[target] < 0) {
+					newIndices[target] = size;
+					queue[size++] = target;
+				}
+			}
+		
+		List<State> newStates = new ArrayList<>(size);
+		List<Symbol> symbols = new ArrayList<>(k);
+		int[] newTable = new int[size * k];
+		boolean[] newAccepting = new boolean[size];
+		for(int symbol = 0; symbol < k; symbol++)
+			symbols.add(indexedDFA.getSymbol(symbol));
+		for(int state = 0; state < size; state++) {
+			newStates.add(indexedDFA.getState(queue[state]));
+			newAccepting[state] = indexedDFA.isAccepting(queue[state]);
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = indexedDFA.next(queue[state], symbol);
+				newTable[state * k + symbol] = target < 0 ? -1 : newIndices[target];
+			}
+		}
+		
+		return AutomatonFactory.createIndexedDFA(newStates, symbols, newTable, 0, newAccepting);
 	}	
 
 	/**
@@ -128,60 +303,96 @@ class DFAMinimization {
 	 * @return the set of equivalence classes
 	 */
 	public static Set<Set<State>> hopcroftMinimization(DFA dfa) {
-		Set<State> nonAcceptingStates = SetOperations.complement(dfa.getStates(),dfa.getAcceptingStates());
-		if(dfa.getAcceptingStates().isEmpty() || nonAcceptingStates.isEmpty()) {
-			return getSingleClassEquivalenceClasses(dfa);
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		int[] classOf = hopcroftClassIndices(indexedDFA);
+		
+		List<Set<State>> classes = new ArrayList<>();
+		for(int state = 0; state < classOf.length; state++) {
+			while(classes.size() <= classOf[state])
+				classes.add(new HashSet<>());
+			classes.get(classOf[state]).add(indexedDFA.getState(state));
 		}
+		return new HashSet<>(classes);
+	}
+	
+	/**
+	 * This algorithm computes the equivalence classes for the Myhill-Nerode equivalence relation of the input DFA
+	 * with Hopcroft's algorithm on a refinable partition. Undefined transitions are treated as transitions into an implicit trash state.
+	 * @param dfa the dfa for which equivalence classes are constructed
+	 * @return an array classOf, classOf[i] being the number of the equivalence class of the state with ordinal i. The classes are numbered 0 ... c-1.
+	 */
+	static int[] hopcroftClassIndices(IndexedDFA dfa) {
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		int size = dfa.isComplete() ? n : n + 1;
+		
+		int[] offsets = new int[size * k + 1];
+		int[] origins = new int[size * k];
+		for(int state = 0; state < size; state++)
+			for(int symbol = 0; symbol < k; symbol++)
+				offsets[getTarget(dfa, state, symbol) * k + symbol + 1]++;
+		for(int key = 0; key < size * k; key++)
+			offsets[key + 1] += offsets[key];
+		int[] fill = Arrays.copyOf(offsets, size * k);
+		for(int state = 0; state < size; state++)
+			for(int symbol = 0; symbol < k; symbol++)
+				origins[fill[getTarget(dfa, state, symbol) * k + symbol]++] = state;
+		
+		RefinablePartition partition = new RefinablePartition(size);
+		int[] newBlocks = new int[size];
+		int[] worklist = new int[size];
+		int worklistSize = 0;
+		int[] predecessors = new int[size];
 		
-		Set<Set<State>> p = new HashSet<>();
-		Set<Set<State>> w = new HashSet<>();
-		
-		p.add(dfa.getAcceptingStates());
-		p.add(nonAcceptingStates);
-		w.add(dfa.getAcceptingStates());
-		w.add(nonAcceptingStates);
-		
-		while(!w.isEmpty()) {
-			Set<State> s = w.iterator().next();
-			w.remove(s);
-			
-			for(Symbol a: dfa.getAlphabet()) {
-				Set<State> la = DFAUtil.getAllDirectlyReachingStates(dfa,s,a);
-				for(Set<State> r: new HashSet<>(p)) {
-					if(!SetOperations.intersection(r,la).isEmpty() && !la.containsAll(r)) {
-						Set<State> r1 = SetOperations.intersection(la, r);
-						Set<State> r2 = SetOperations.complement(r,r1);
-						p.remove(r);
-						p.add(r1);
-						p.add(r2);
-						if(w.contains(r)) {
-							w.remove(r);
-							w.add(r1);
-							w.add(r2);
-						} else {
-							if(r1.size() <= r2.size())
-								w.add(r1);
-							else
-								w.add(r2);
-						}
-					}
+		for(int state = 0; state < n; state++)
+			if(dfa.isAccepting(state))
+				partition.mark(state);
+		int created = partition.split(newBlocks);
+		for(int i = 0; i < created; i++)
+			worklist[worklistSize++] = newBlocks[i];
+		
+		/*
+		 * A split always gives the smaller part a new block number. 
+		 * Adding only the new block to the worklist therefore covers both cases of Hopcroft's algorithm:
+		 * If the old block is still waiting, both parts are waiting afterwards. Otherwise only the smaller part is added.
+		 */
+		while(worklistSize > 0) {
+			int splitter = worklist[--worklistSize];
+			for(int symbol = 0; symbol < k; symbol++) {
+				int count = 0;
+				int first = partition.getFirst(splitter);
+				int last = first + partition.getSize(splitter);
+				for(int position = first; position < last; position++) {
+					int key = partition.getElement(position) * k + symbol;
+					for(int i = offsets[key]; i < offsets[key + 1]; i++)
+						predecessors[count++] = origins[i];
 				}
+				for(int i = 0; i < count; i++)
+					partition.mark(predecessors[i]);
+				created = partition.split(newBlocks);
+				for(int i = 0; i < created; i++)
+					worklist[worklistSize++] = newBlocks[i];
 			}
 		}
-		return p;			
+		
+		int[] classIndices = new int[partition.getBlockCount()];
+		Arrays.fill(classIndices, -1);
+		int classCount = 0;
+		int[] classOf = new int[n];
+		for(int state = 0; state < n; state++) {
+			int block = partition.getBlock(state);
+			if(classIndices[block] < 0)
+				classIndices[block] = classCount++;
+			classOf[state] = classIndices[block];
+		}
+		return classOf;
 	}
 	
 	/**
-	 * Returns a set of equivalence classes with a single equivalence class containing all states.
-	 * @param dfa dfa for which equivalence classes are being built
-	 * @return a set of equivalence classes with a single equivalence class containing all states.
+	 * Returns the target of a transition with the implicit trash state n as target of undefined transitions.
 	 */
-	private static Set<Set<State>> getSingleClassEquivalenceClasses(DFA dfa){
-		Set<Set<State>> classes = new HashSet<>();
-		Set<State> clas = new HashSet<>();
-		clas.addAll(dfa.getStates());
-		classes.add(clas);		
-		return classes;
+	private static int getTarget(IndexedDFA dfa, int state, int symbol) {
+		int target = state < dfa.getStateCount() ? dfa.next(state, symbol) : -1;
+		return target < 0 ? dfa.getStateCount() : target;
 	}
-	
 }
@@ -0,0 +1,62 @@
+package data.algorithms;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import data.algorithms.util.PDFALanguageType;
+import data.automaton.definitions.DFA;
+
+class DFAParallelProduct {
+
+	private DFAParallelProduct() {}
+
+	/**
+	 * This method returns a minimized dfa for the intersection of the languages of all given dfas.
+	 * The list is reduced as a balanced binary tree on a fork/join pool. Every leaf and every internal node is minimized,
+	 * the two halves of every node are computed in parallel.
+	 * @param dfas the dfas to intersect. Must contain at least one dfa.
+	 * @param parallelism the number of worker threads
+	 * @return the minimized intersection dfa
+	 */
+	static DFA minimizedProductDFA(List<DFA> dfas, int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new ProductTask(dfas, 0, dfas.size()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Task that computes the minimized intersection of the dfas from index from (inclusive) to index to (exclusive).
+	 */
+	private static class ProductTask extends RecursiveTask<DFA> {
+
+		/**
+		 * 
+		 */
+		private static final long serialVersionUID = 4390270263512950847L;
+
+		private final List<DFA> dfas;
+		private final int from;
+		private final int to;
+
+		ProductTask(List<DFA> dfas, int from, int to) {
+			this.dfas = dfas;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected DFA compute() {
+			if(to - from == 1)
+				return DFAAlgorithms.minimizeDFA(dfas.get(from));
+			int middle = (from + to) >>> 1;
+			ProductTask left = new ProductTask(dfas, from, middle);
+			left.fork();
+			DFA right = new ProductTask(dfas, middle, to).compute();
+			return DFAAlgorithms.minimizeDFA(DFAAlgorithms.productDFA(left.join(), right, PDFALanguageType.INTERSECTION));
+		}
+	}
+}
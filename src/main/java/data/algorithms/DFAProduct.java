@@ -1,18 +1,22 @@
 package data.algorithms;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
+import data.algorithms.util.DFATraversal;
 import data.algorithms.util.PDFALanguageType;
 import data.algorithms.util.SetOperations;
 import data.automaton.definitions.Alphabet;
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
+import data.automaton.definitions.ProductDFA;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
 import data.automaton.implementations.AutomatonFactory;
 import data.math.definitions.BinaryTuple;
-import data.math.definitions.TransitionFunction;
-import data.math.exceptions.OutOfDomainException;
 import data.math.implementations.MathFactory;
 
 class DFAProduct {
@@ -21,76 +25,278 @@ class DFAProduct {
 
 	/**
 	 * This method returns a product dfa = dfa1 x dfa2. The Language that is decided by the product dfa is defined by the type parameter.
+	 * Only the pair states that are reachable from the pair of the start states are created.
+	 * The product keeps the acceptance of both states of every pair, so it can also be read for other language types.
 	 * @param dfa1 the first dfa of the operation
 	 * @param dfa2 the second dfa of the operation
 	 * @param type defines the language of the P-DFA
 	 * @throws IllegalArgumentException if the alphabets of the input dfas are not equal.
 	 * @return the product dfa
 	 */
-	static DFA productDFA(DFA dfa1, DFA dfa2, PDFALanguageType type) {
+	static ProductDFA productDFA(DFA dfa1, DFA dfa2, PDFALanguageType type) {
 		Alphabet alphabet = SetOperations.unionAlphabet(dfa1.getAlphabet(),dfa2.getAlphabet());
-		if(!dfa1.getAlphabet().equals(dfa2.getAlphabet())){
-			dfa1 = AutomatonFactory.createDFA(dfa1.getStates(),alphabet,dfa1.getTransitionFunction(),dfa1.getStartState(),dfa1.getAcceptingStates());
-			dfa2 = AutomatonFactory.createDFA(dfa2.getStates(),alphabet,dfa2.getTransitionFunction(),dfa2.getStartState(),dfa2.getAcceptingStates());
+		List<Symbol> symbols = new ArrayList<>(alphabet.getSymbols());
+		symbols.sort(Comparator.comparing(Symbol::getChar));
+		IndexedDFA first = getCompleteDFA(dfa1, symbols);
+		IndexedDFA second = getCompleteDFA(dfa2, symbols);
+		
+		int k = symbols.size();
+		int[] symbols1 = getSymbolMapping(first, symbols);
+		int[] symbols2 = getSymbolMapping(second, symbols);
+		
+		/*
+		 * The pair with ordinal p is stored in pairs[2 * p] and pairs[2 * p + 1].
+		 * The ordinals of the pairs are found through an open addressing hash table, the pairs are numbered in the order of a
+		 * breadth first search, which also serves as the worklist. All arrays grow with the number of reached pairs.
+		 */
+		int[] pairs = new int[2 * 16];
+		int[] table = new int[16 * k];
+		int[] slots = new int[64];
+		Arrays.fill(slots, -1);
+		int size = 0;
+		
+		int[] pair = {first.getStartIndex(), second.getStartIndex()};
+		System.arraycopy(pair, 0, pairs, 0, 2);
+		slots[findSlot(slots, pairs, pair, 2)] = size++;
+		for(int head = 0; head < size; head++) {
+			int state1 = pairs[2 * head];
+			int state2 = pairs[2 * head + 1];
+			for(int symbol = 0; symbol < k; symbol++) {
+				pair[0] = first.next(state1, symbols1[symbol]);
+				pair[1] = second.next(state2, symbols2[symbol]);
+				int slot = findSlot(slots, pairs, pair, 2);
+				int target = slots[slot];
+				if(target < 0) {
+					if(2 * size == pairs.length) {
+						pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+						table = Arrays.copyOf(table, 2 * table.length);
+					}
+					System.arraycopy(pair, 0, pairs, 2 * size, 2);
+					target = size++;
+					slots[slot] = target;
+					if(2 * size > slots.length)
+						slots = rehash(slots, pairs, size, 2);
+				}
+				table[head * k + symbol] = target;
+			}
+		}
+		
+		List<State> states = new ArrayList<>(size);
+		boolean[] accepting = new boolean[size];
+		boolean[] acceptingFirst = new boolean[size];
+		boolean[] acceptingSecond = new boolean[size];
+		for(int state = 0; state < size; state++) {
+			int state1 = pairs[2 * state];
+			int state2 = pairs[2 * state + 1];
+			states.add(AutomatonFactory.createState(getProductDFAStateName(first.getState(state1), second.getState(state2))));
+			acceptingFirst[state] = first.isAccepting(state1);
+			acceptingSecond[state] = second.isAccepting(state2);
+			accepting[state] = type.isAccepting(acceptingFirst[state], acceptingSecond[state]);
 		}
-		dfa1 = DFAAlgorithms.getCompleteDFA(dfa1);
-		dfa2 = DFAAlgorithms.getCompleteDFA(dfa2);
-		Set<BinaryTuple<State,State>> stateTuples = SetOperations.cartesianProduct(dfa1.getStates(),dfa2.getStates());
-		BinaryTuple<State,State> startStateTuple = MathFactory.createBinaryTuple(dfa1.getStartState(), dfa2.getStartState());
-		Set<BinaryTuple<State,State>> acceptingStateTuples = type.getAcceptingStatesProduct(dfa1, dfa2);
-		TransitionFunction function = getProductDFATransitionFunction(alphabet,stateTuples,dfa1.getTransitionFunction(),dfa2.getTransitionFunction());
 		
-		return AutomatonFactory.createDFA(
-				getStateSet(stateTuples), 
-				alphabet, 
-				function, 
-				AutomatonFactory.createState(getProductDFAStateName(startStateTuple)), 
-				getStateSet(acceptingStateTuples));
+		return AutomatonFactory.createProductDFA(states, symbols, Arrays.copyOf(table, size * k), 0, accepting, acceptingFirst, acceptingSecond);
 	}
 	
 	/**
-	 * Returns the transition function of a product dfa.
-	 * @param alphabet	alphabet of the product dfa
-	 * @param stateTupels tupels that represent the new state names
-	 * @param trans1 the transition function of the original first dfa
-	 * @param trans2 the transition function of the original second dfa
-	 * @return  the transition function for the product dfa
+	 * This method returns the synchronous product of n dfas. Its states are tuples with one state of every dfa.
+	 * Only the tuples that are reachable from the tuple of the start states are created, all of them in one breadth first search.
+	 * A tuple is accepting if the left fold of the acceptance of its states with the type parameter is true,
+	 * so the product decides the same language as folding the dfas pairwise with productDFA in list order.
+	 * For intersections the search stops before it starts if one of the start states is dead. The product then has one state and no transitions.
+	 * The states are named by the ordinals of their tuples. Names joined from the component states could collide,
+	 * since the component states can be product states themselves.
+	 * @param dfas the dfas of the operation. Must contain at least one dfa.
+	 * @param type defines the language of the P-DFA
+	 * @return the product dfa
 	 */
-	private static TransitionFunction getProductDFATransitionFunction(Alphabet alphabet, Set<BinaryTuple<State,State>> stateTupels, TransitionFunction trans1, TransitionFunction trans2) {
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> tupels = new HashSet<>();
+	static IndexedDFA productDFA(List<DFA> dfas, PDFALanguageType type) {
+		Alphabet alphabet = dfas.get(0).getAlphabet();
+		for(DFA dfa: dfas)
+			alphabet = SetOperations.unionAlphabet(alphabet, dfa.getAlphabet());
+		List<Symbol> symbols = new ArrayList<>(alphabet.getSymbols());
+		symbols.sort(Comparator.comparing(Symbol::getChar));
+		int m = dfas.size();
+		int k = symbols.size();
+		IndexedDFA[] components = new IndexedDFA[m];
+		int[][] mappings = new int[m][];
+		boolean[][] dead = new boolean[m][];
+		for(int i = 0; i < m; i++) {
+			components[i] = getCompleteDFA(dfas.get(i), symbols);
+			mappings[i] = getSymbolMapping(components[i], symbols);
+			dead[i] = getDeadStates(components[i]);
+		}
+		
+		/*
+		 * The tuple with ordinal t is stored in tuples[t * m] ... tuples[t * m + m - 1].
+		 * The ordinals of the tuples are found through an open addressing hash table, the tuples are numbered in breadth first order.
+		 * For intersections every tuple with a dead state is dead itself. All of them are merged into the first dead tuple that is reached.
+		 * If the tuple of the start states is dead, the intersection is empty and the search is not started at all.
+		 */
+		boolean mergeDead = type == PDFALanguageType.INTERSECTION;
+		int sink = -1;
+		int[] tuples = new int[16 * m];
+		int[] table = new int[16 * k];
+		int[] slots = new int[64];
+		Arrays.fill(slots, -1);
+		int size = 0;
 		
-		for(BinaryTuple<State,State> stateTupel: stateTupels)
-			for(Symbol symbol: alphabet) {
-				try {
-					State newOrigin = AutomatonFactory.createState(getProductDFAStateName(stateTupel));
-					State dest1 = trans1.apply(stateTupel.getFirst(), symbol);
-					State dest2 = trans2.apply(stateTupel.getSecond(), symbol);
-					State newTarget = AutomatonFactory.createState(getProductDFAStateName(MathFactory.createBinaryTuple(dest1,dest2)));
-					tupels.add(MathFactory.createTransition(newOrigin, symbol, newTarget));
-				} catch (OutOfDomainException e) {}
+		int[] tuple = new int[m];
+		for(int i = 0; i < m; i++)
+			tuple[i] = components[i].getStartIndex();
+		System.arraycopy(tuple, 0, tuples, 0, m);
+		if(mergeDead && isDead(dead, tuple)) {
+			int[] sinkTable = new int[k];
+			Arrays.fill(sinkTable, -1);
+			return AutomatonFactory.createIndexedDFA(Collections.singletonList(AutomatonFactory.createState("0")), symbols, sinkTable, 0, new boolean[1]);
+		}
+		slots[findSlot(slots, tuples, tuple, m)] = size++;
+		for(int head = 0; head < size; head++)
+			for(int symbol = 0; symbol < k; symbol++) {
+				for(int i = 0; i < m; i++)
+					tuple[i] = components[i].next(tuples[head * m + i], mappings[i][symbol]);
+				boolean isDead = mergeDead && isDead(dead, tuple);
+				if(isDead && sink >= 0) {
+					table[head * k + symbol] = sink;
+					continue;
+				}
+				int slot = findSlot(slots, tuples, tuple, m);
+				int target = slots[slot];
+				if(target < 0) {
+					if(size * m == tuples.length) {
+						tuples = Arrays.copyOf(tuples, 2 * tuples.length);
+						table = Arrays.copyOf(table, 2 * table.length);
+					}
+					System.arraycopy(tuple, 0, tuples, size * m, m);
+					target = size++;
+					slots[slot] = target;
+					if(2 * size > slots.length)
+						slots = rehash(slots, tuples, size, m);
+					if(isDead)
+						sink = target;
+				}
+				table[head * k + symbol] = target;
 			}
-				
-		return MathFactory.createTransitionFunction(tupels);
+		
+		List<State> states = new ArrayList<>(size);
+		boolean[] accepting = new boolean[size];
+		for(int state = 0; state < size; state++) {
+			boolean isAccepting = components[0].isAccepting(tuples[state * m]);
+			for(int i = 1; i < m; i++)
+				isAccepting = type.isAccepting(isAccepting, components[i].isAccepting(tuples[state * m + i]));
+			states.add(AutomatonFactory.createState(String.valueOf(state)));
+			accepting[state] = isAccepting;
+		}
+		
+		return AutomatonFactory.createIndexedDFA(states, symbols, Arrays.copyOf(table, size * k), 0, accepting);
+	}
+	
+	/**
+	 * Returns the states of a complete dfa that cannot reach an accepting state.
+	 * @param dfa a complete indexed dfa
+	 * @return an array that marks every dead state with true
+	 */
+	private static boolean[] getDeadStates(IndexedDFA dfa) {
+		boolean[] dead = DFATraversal.getCoReachable(dfa);
+		for(int state = 0; state < dead.length; state++)
+			dead[state] = !dead[state];
+		return dead;
+	}
+	
+	private static boolean isDead(boolean[][] dead, int[] tuple) {
+		for(int i = 0; i < tuple.length; i++)
+			if(dead[i][tuple[i]])
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Returns the slot of the hash table that holds the ordinal of the given tuple or the empty slot where it has to be inserted.
+	 * The tuple with ordinal t is stored in tuples[t * m] ... tuples[t * m + m - 1].
+	 */
+	static int findSlot(int[] slots, int[] tuples, int[] tuple, int m) {
+		int mask = slots.length - 1;
+		int slot = hash(tuple, 0, m) & mask;
+		while(slots[slot] >= 0 && !equalTuples(tuples, slots[slot] * m, tuple, m))
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+	
+	/**
+	 * Returns a hash table of twice the size with the ordinals of the first size tuples.
+	 */
+	static int[] rehash(int[] slots, int[] tuples, int size, int m) {
+		int[] newSlots = new int[2 * slots.length];
+		Arrays.fill(newSlots, -1);
+		int mask = newSlots.length - 1;
+		for(int ordinal = 0; ordinal < size; ordinal++) {
+			int slot = hash(tuples, ordinal * m, m) & mask;
+			while(newSlots[slot] >= 0)
+				slot = (slot + 1) & mask;
+			newSlots[slot] = ordinal;
+		}
+		return newSlots;
+	}
+	
+	private static int hash(int[] values, int offset, int m) {
+		int hash = 1;
+		for(int i = offset; i < offset + m; i++)
+			hash = 31 * hash + values[i];
+		return hash ^ (hash >>> 16);
+	}
+	
+	private static boolean equalTuples(int[] tuples, int offset, int[] tuple, int m) {
+		for(int i = 0; i < m; i++)
+			if(tuples[offset + i] != tuple[i])
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Returns a complete indexed version of the given dfa over the given symbols.
+	 * Symbols that are not in the alphabet of the dfa are treated as undefined transitions.
+	 * @param dfa the dfa to complete
+	 * @param symbols the symbols of the new alphabet. Has to be a superset of the alphabet of the dfa.
+	 * @return a complete indexed dfa over the given symbols
+	 */
+	private static IndexedDFA getCompleteDFA(DFA dfa, List<Symbol> symbols) {
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		if(indexedDFA.getSymbolCount() != symbols.size()) {
+			int[] mapping = getSymbolMapping(indexedDFA, symbols);
+			int k = symbols.size();
+			List<State> states = new ArrayList<>(indexedDFA.getStateCount());
+			int[] table = new int[indexedDFA.getStateCount() * k];
+			boolean[] accepting = new boolean[indexedDFA.getStateCount()];
+			for(int state = 0; state < indexedDFA.getStateCount(); state++) {
+				states.add(indexedDFA.getState(state));
+				accepting[state] = indexedDFA.isAccepting(state);
+				for(int symbol = 0; symbol < k; symbol++)
+					table[state * k + symbol] = mapping[symbol] < 0 ? -1 : indexedDFA.next(state, mapping[symbol]);
+			}
+			indexedDFA = AutomatonFactory.createIndexedDFA(states, symbols, table, indexedDFA.getStartIndex(), accepting);
+		}
+		return AutomatonFactory.createIndexedDFA(DFAAlgorithms.getCompleteDFA(indexedDFA));
 	}
 	
 	/**
-	 * Returns the state set for a product dfa.
-	 * @param tuples tuple representation of the names of the product-dfa-states
-	 * @return the new state set for a product dfa.
+	 * Maps the given symbols to their ordinals in the given dfa.
+	 * @param dfa an indexed dfa
+	 * @param symbols a list of symbols
+	 * @return an array with the ordinal of every symbol in the dfa or -1 if the symbol is not in its alphabet
 	 */
-	private static Set<State> getStateSet(Set<BinaryTuple<State,State>> tuples){
-		Set<State> states = new HashSet<>();
-		for(BinaryTuple<State,State> tuple: tuples)
-			states.add(AutomatonFactory.createState(getProductDFAStateName(tuple)));
-		return states;
+	private static int[] getSymbolMapping(IndexedDFA dfa, List<Symbol> symbols) {
+		int[] mapping = new int[symbols.size()];
+		for(int symbol = 0; symbol < symbols.size(); symbol++)
+			mapping[symbol] = dfa.indexOf(symbols.get(symbol));
+		return mapping;
 	}
 	
 	/**
 	 * Returns the new name for a state in a product dfa.
-	 * @param stateTuple the tuple defining the new state
+	 * @param state1 the state of the first dfa
+	 * @param state2 the state of the second dfa
 	 * @return the new state name
 	 */
-	private static String getProductDFAStateName(BinaryTuple<State,State> stateTuple) {
-		return BinaryTuple.getElementsString(stateTuple);
+	private static String getProductDFAStateName(State state1, State state2) {
+		return BinaryTuple.getElementsString(MathFactory.createBinaryTuple(state1, state2));
 	}
 }
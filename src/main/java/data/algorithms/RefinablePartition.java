@@ -0,0 +1,152 @@
+package data.algorithms;
+
+/**
+ * A refinable partition of the elements 0 ... n-1 as used by partition refinement algorithms.
+ * The elements are stored in one array ordered by their blocks, so every block is a range of this array.
+ * Elements are marked by moving them to the front of their block. Splitting separates the marked from the unmarked elements of
+ * every touched block in time proportional to the number of marked elements.
+ */
+class RefinablePartition {
+
+	private int blockCount;
+	private int[] elements;
+	private int[] location;
+	private int[] blockOf;
+	private int[] first;
+	private int[] end;
+	private int[] marked;
+	private int[] touched;
+	private int touchedCount;
+
+	/**
+	 * Creates a partition of the elements 0 ... n-1 that consists of a single block (or no block if n is 0).
+	 * @param n number of elements
+	 */
+	RefinablePartition(int n) {
+		elements = new int[n];
+		location = new int[n];
+		blockOf = new int[n];
+		first = new int[n];
+		end = new int[n];
+		marked = new int[n];
+		touched = new int[n];
+		for(int element = 0; element < n; element++) {
+			elements[element] = element;
+			location[element] = element;
+		}
+		if(n > 0) {
+			end[0] = n;
+			blockCount = 1;
+		}
+	}
+
+	/**
+	 * @return the number of blocks of this partition
+	 */
+	int getBlockCount() {
+		return blockCount;
+	}
+
+	/**
+	 * @param element an element
+	 * @return the block of the element
+	 */
+	int getBlock(int element) {
+		return blockOf[element];
+	}
+
+	/**
+	 * @param block a block
+	 * @return the number of elements of the block
+	 */
+	int getSize(int block) {
+		return end[block] - first[block];
+	}
+
+	/**
+	 * @param block a block
+	 * @return the position of the first element of the block. The elements of the block are at the positions first ... first + size - 1.
+	 */
+	int getFirst(int block) {
+		return first[block];
+	}
+
+	/**
+	 * @param position a position in the element array
+	 * @return the element at the given position
+	 */
+	int getElement(int position) {
+		return elements[position];
+	}
+
+	/**
+	 * @param block a block
+	 * @return the number of marked elements of the block
+	 */
+	int getMarkedCount(int block) {
+		return marked[block] - first[block];
+	}
+
+	/**
+	 * Marks an element. Marking an element twice has no effect.
+	 * @param element the element to mark
+	 */
+	void mark(int element) {
+		int block = blockOf[element];
+		int position = location[element];
+		int markedEnd = marked[block];
+		if(position < markedEnd)
+			return;
+		elements[position] = elements[markedEnd];
+		location[elements[position]] = position;
+		elements[markedEnd] = element;
+		location[element] = markedEnd;
+		if(markedEnd == first[block])
+			touched[touchedCount++] = block;
+		marked[block]++;
+	}
+
+	/**
+	 * Splits every block with marked elements into its marked and its unmarked part and removes all marks.
+	 * The smaller part gets a new block number, the larger part keeps the old one.
+	 * Blocks whose elements are all marked are not split.
+	 * @param newBlocks array that receives the numbers of the newly created blocks. Has to be large enough for every touched block.
+	 * @return the number of newly created blocks
+	 */
+	int split(int[] newBlocks) {
+		int created = 0;
+		while(touchedCount > 0) {
+			int block = touched[--touchedCount];
+			int markedEnd = marked[block];
+			if(markedEnd == end[block]) {
+				marked[block] = first[block];
+				continue;
+			}
+			int newBlock = blockCount++;
+			if(markedEnd - first[block] <= end[block] - markedEnd) {
+				first[newBlock] = first[block];
+				end[newBlock] = markedEnd;
+				first[block] = markedEnd;
+			} else {
+				end[newBlock] = end[block];
+				first[newBlock] = markedEnd;
+				end[block] = markedEnd;
+			}
+			for(int position = first[newBlock]; position < end[newBlock]; position++)
+				blockOf[elements[position]] = newBlock;
+			marked[block] = first[block];
+			marked[newBlock] = first[newBlock];
+			if(newBlocks != null)
+				newBlocks[created] = newBlock;
+			created++;
+		}
+		return created;
+	}
+
+	/**
+	 * @return an array that assigns every element the number of its block
+	 */
+	int[] getBlocks() {
+		return blockOf.clone();
+	}
+}
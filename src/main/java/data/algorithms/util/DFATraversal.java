@@ -0,0 +1,173 @@
+package data.algorithms.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+import data.automaton.definitions.IndexedDFA;
+
+/**
+ * Provides iterative traversals of the graph of an indexed dfa.
+ * All traversals work on primitive arrays with an explicit queue or stack, so their depth is not limited by the thread stack.
+ * Undefined transitions are skipped.
+ */
+public class DFATraversal {
+
+	private static final String NULLINPUTMSG = "This method does not allow null parameters!";
+
+	private DFATraversal() {}
+
+	/**
+	 * Returns the states that are reachable from the origin state.
+	 * @param dfa the dfa to work on
+	 * @param origin the index of the origin state
+	 * @return an array that is true for every reachable state (including the origin)
+	 */
+	public static boolean[] getReachable(IndexedDFA dfa, int origin) {
+		if(dfa == null)
+			throw new IllegalArgumentException(NULLINPUTMSG);
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		boolean[] reached = new boolean[n];
+		int[] queue = new int[n];
+		int size = 0;
+		reached[origin] = true;
+		queue[size++] = origin;
+		for(int head = 0; head < size; head++)
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = dfa.next(queue[head], symbol);
+				if(target >= 0 && !reached[target]) {
+					reached[target] = true;
+					queue[size++] = target;
+				}
+			}
+		return reached;
+	}
+
+	/**
+	 * Returns the states from which one of the destination states is reachable.
+	 * All destinations are searched at once by one backward breadth first search over the inverse adjacency index of the dfa.
+	 * @param dfa the dfa to work on
+	 * @param destinations an array that is true for every destination state
+	 * @return an array that is true for every state that reaches a destination (including the destinations)
+	 */
+	public static boolean[] getReaching(IndexedDFA dfa, boolean[] destinations) {
+		if(dfa == null || destinations == null)
+			throw new IllegalArgumentException(NULLINPUTMSG);
+		int n = dfa.getStateCount();
+		boolean[] reaching = new boolean[n];
+		int[] queue = new int[n];
+		int size = 0;
+		for(int state = 0; state < n; state++)
+			if(destinations[state]) {
+				reaching[state] = true;
+				queue[size++] = state;
+			}
+		for(int head = 0; head < size; head++)
+			for(int origin: dfa.previous(queue[head]))
+				if(!reaching[origin]) {
+					reaching[origin] = true;
+					queue[size++] = origin;
+				}
+		return reaching;
+	}
+
+	/**
+	 * Returns the states that can reach an accepting state.
+	 * @param dfa the dfa to work on
+	 * @return an array that is true for every state that reaches an accepting state
+	 */
+	public static boolean[] getCoReachable(IndexedDFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException(NULLINPUTMSG);
+		boolean[] accepting = new boolean[dfa.getStateCount()];
+		for(int state = 0; state < accepting.length; state++)
+			accepting[state] = dfa.isAccepting(state);
+		return getReaching(dfa, accepting);
+	}
+
+	/**
+	 * Searches the dfa breadth first from the start state for a goal state. Every visited state keeps a parent pointer
+	 * (its predecessor and the symbol of the transition), the word is read by following them back to the start state.
+	 * @param dfa the dfa to work on
+	 * @param goal decides which state indices are goal states
+	 * @return a shortest word that leads to a goal state or an empty optional if no goal state is reachable
+	 */
+	public static Optional<String> getShortestWord(IndexedDFA dfa, IntPredicate goal) {
+		if(dfa == null || goal == null)
+			throw new IllegalArgumentException(NULLINPUTMSG);
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		int[] origins = new int[n];
+		int[] symbols = new int[n];
+		boolean[] visited = new boolean[n];
+		int[] queue = new int[n];
+		int size = 0;
+		origins[dfa.getStartIndex()] = -1;
+		visited[dfa.getStartIndex()] = true;
+		queue[size++] = dfa.getStartIndex();
+		for(int head = 0; head < size; head++) {
+			int state = queue[head];
+			if(goal.test(state)) {
+				StringBuilder word = new StringBuilder();
+				for(; origins[state] >= 0; state = origins[state])
+					word.append(dfa.getSymbol(symbols[state]).getChar());
+				return Optional.of(word.reverse().toString());
+			}
+			for(int symbol = 0; symbol < k; symbol++) {
+				int target = dfa.next(state, symbol);
+				if(target >= 0 && !visited[target]) {
+					visited[target] = true;
+					origins[target] = state;
+					symbols[target] = symbol;
+					queue[size++] = target;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Enumerates the words up to the maximum length that lead from the start state to a goal state.
+	 * The paths are searched depth first with an explicit stack that holds the state and the next symbol of every position of the word.
+	 * @param dfa the dfa to work on
+	 * @param goal decides which state indices are goal states
+	 * @param maxLength the maximum length of the words
+	 * @param strictLength if true, only words of exactly the maximum length are returned
+	 * @return the words in the order of the search
+	 */
+	public static List<String> getWords(IndexedDFA dfa, IntPredicate goal, int maxLength, boolean strictLength) {
+		if(dfa == null || goal == null)
+			throw new IllegalArgumentException(NULLINPUTMSG);
+		List<String> words = new ArrayList<>();
+		if(maxLength < 0)
+			return words;
+		int k = dfa.getSymbolCount();
+		int[] states = new int[maxLength + 1];
+		int[] nextSymbols = new int[maxLength + 1];
+		char[] word = new char[maxLength];
+		int depth = 0;
+		states[0] = dfa.getStartIndex();
+		nextSymbols[0] = 0;
+		if((!strictLength || maxLength == 0) && goal.test(states[0]))
+			words.add("");
+		while(depth >= 0) {
+			if(depth == maxLength || nextSymbols[depth] == k) {
+				depth--;
+				continue;
+			}
+			int symbol = nextSymbols[depth]++;
+			int target = dfa.next(states[depth], symbol);
+			if(target < 0)
+				continue;
+			word[depth] = dfa.getSymbol(symbol).getChar();
+			depth++;
+			states[depth] = target;
+			nextSymbols[depth] = 0;
+			if((!strictLength || depth == maxLength) && goal.test(target))
+				words.add(new String(word, 0, depth));
+		}
+		return words;
+	}
+}
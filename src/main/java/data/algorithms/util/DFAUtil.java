@@ -4,9 +4,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
-import data.math.exceptions.OutOfDomainException;
+import data.automaton.implementations.AutomatonFactory;
 /**
  * Provides utility methods for DFA calculations.
  *
@@ -33,10 +34,8 @@ public class DFAUtil {
 		if(!dfa.getStates().contains(origin))
 			throw new IllegalArgumentException(NOTELEMENTOFSTATESMSG);		
 		
-		Set<State> reachable = new HashSet<>(dfa.getStates());
-		reachable.removeAll(getAllUnReachableStates(dfa,origin));
-		
-		return reachable;
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		return getStates(indexedDFA, getReachable(indexedDFA, origin), true);
 	}
 
 	/**
@@ -52,10 +51,8 @@ public class DFAUtil {
 		if(!dfa.getStates().contains(destination))
 			throw new IllegalArgumentException(NOTELEMENTOFSTATESMSG);
 		
-		Set<State> reaching = new HashSet<>(dfa.getStates());
-		reaching.removeAll(getAllNonReachingStates(dfa,destination));
-		
-		return reaching;
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		return getStates(indexedDFA, getReaching(indexedDFA, destination), true);
 	}
 
 	/**
@@ -71,11 +68,8 @@ public class DFAUtil {
 		if(!dfa.getStates().contains(origin))
 			throw new IllegalArgumentException(NOTELEMENTOFSTATESMSG);
 		
-		Set<State> unvisited = new HashSet<>(dfa.getStates());
-		
-		visit(dfa,unvisited,origin);
-		
-		return unvisited;
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		return getStates(indexedDFA, getReachable(indexedDFA, origin), false);
 	}
 
 	/**
@@ -91,11 +85,8 @@ public class DFAUtil {
 		if(!dfa.getStates().contains(destination))
 			throw new IllegalArgumentException(NOTELEMENTOFSTATESMSG);
 		
-		Set<State> unvisited = new HashSet<>(dfa.getStates());
-		
-		visitReverse(dfa,unvisited,destination);
-		
-		return unvisited;
+		IndexedDFA indexedDFA = AutomatonFactory.createIndexedDFA(dfa);
+		return getStates(indexedDFA, getReaching(indexedDFA, destination), false);
 	}
 
 	/**
@@ -116,9 +107,9 @@ public class DFAUtil {
 		
 		Set<State> reachable = new HashSet<>();
 		
-		try {
-			reachable.add(dfa.getTransitionFunction().apply(origin,symbol));
-		} catch (OutOfDomainException e) {}
+		State destination = dfa.getTransitionFunction().applyOrNull(origin,symbol);
+		if(destination != null)
+			reachable.add(destination);
 		
 		return reachable;
 	}
@@ -141,8 +132,11 @@ public class DFAUtil {
 		
 		Set<State> reachable = new HashSet<>();
 		
-		for(State origin: origins)
-			reachable.addAll(getAllDirectlyReachableStates(dfa,origin, symbol));
+		for(State origin: origins) {
+			State destination = dfa.getTransitionFunction().applyOrNull(origin,symbol);
+			if(destination != null)
+				reachable.add(destination);
+		}
 		
 		return reachable;
 	}
@@ -197,36 +191,29 @@ public class DFAUtil {
 	}
 
 	/**
-	 * Visits every unvisited but visitable state from the current state in the DFA's graph and marks them.
-	 * @param dfa the dfa to work on
-	 * @param unvisited the set of states that have not yet been visited
-	 * @param current the current state.
+	 * @return the array whose entry is true for the states that are reachable from the origin
 	 */
-	private static void visit(DFA dfa, Set<State> unvisited, State current) {
-		if(!unvisited.contains(current))
-			return;
-		unvisited.remove(current);
-		for(Symbol symbol: dfa.getAlphabet())
-			try {
-				visit(dfa,unvisited,dfa.getTransitionFunction().apply(current, symbol));
-			} catch (OutOfDomainException e) {}
+	private static boolean[] getReachable(IndexedDFA dfa, State origin) {
+		return DFATraversal.getReachable(dfa, dfa.indexOf(origin));
 	}
-	
 
 	/**
-	 * Visits every unvisited but visitable state from the current state in an graph with inverted edges and marks them.
-	 * @param dfa the dfa to work on
-	 * @param unvisited the set of states that have not yet been visited
-	 * @param current the current state.
+	 * @return the array whose entry is true for the states from which the destination is reachable
 	 */
-	private static void visitReverse(DFA dfa, Set<State> unvisited, State current) {
-		if(!unvisited.contains(current))
-			return;
+	private static boolean[] getReaching(IndexedDFA dfa, State destination) {
+		boolean[] destinations = new boolean[dfa.getStateCount()];
+		destinations[dfa.indexOf(destination)] = true;
+		return DFATraversal.getReaching(dfa, destinations);
+	}
 
-		unvisited.remove(current);
-		
-		for(Symbol symbol: dfa.getAlphabet())
-				for(State state: dfa.getTransitionFunction().getPreimageStates(symbol,current))
-					visitReverse(dfa,unvisited,state);
+	/**
+	 * @return the states of the dfa whose entry in the array equals the given value
+	 */
+	private static Set<State> getStates(IndexedDFA dfa, boolean[] marked, boolean value) {
+		Set<State> states = new HashSet<>();
+		for(int state = 0; state < marked.length; state++)
+			if(marked[state] == value)
+				states.add(dfa.getState(state));
+		return states;
 	}
 }
@@ -0,0 +1,39 @@
+package data.algorithms.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import data.automaton.definitions.DFA;
+
+/**
+ * The result of multiplying dfas one after another in the order of a ProductOrder strategy.
+ * It holds the resulting dfa and the number of states of every intermediate product (before its minimization).
+ */
+public class OrderedProduct {
+
+	private final DFA dfa;
+	private final List<Integer> intermediateSizes;
+
+	/**
+	 * @param dfa the resulting dfa
+	 * @param intermediateSizes the number of states of every intermediate product in the order of multiplication
+	 */
+	public OrderedProduct(DFA dfa, List<Integer> intermediateSizes) {
+		if(dfa == null || intermediateSizes == null)
+			throw new IllegalArgumentException("The input parameters must not be null!");
+		this.dfa = dfa;
+		this.intermediateSizes = new ArrayList<>(intermediateSizes);
+	}
+
+	public DFA getDFA() {
+		return dfa;
+	}
+
+	/**
+	 * @return the number of states of every intermediate product in the order of multiplication
+	 */
+	public List<Integer> getIntermediateSizes() {
+		return Collections.unmodifiableList(intermediateSizes);
+	}
+}
@@ -70,4 +70,34 @@ public enum PDFALanguageType {
 			return PDFALanguageType.INTERSECTION.getAcceptingStatesProduct(dfa1, dfa2);
 		}
 	}
+
+	/**
+	 * Returns whether or not a state of a product automaton of two complete dfas is accepting.
+	 * The type of this enum object defines the criteria of selecting accepting states.
+	 * @param accepting1 whether or not the state of the first dfa is accepting
+	 * @param accepting2 whether or not the state of the second dfa is accepting
+	 * @return true if and only if the product state is accepting
+	 */
+	public boolean isAccepting(boolean accepting1, boolean accepting2) {
+		switch(this) {
+		case INTERSECTION:
+			return accepting1 && accepting2;
+		case ONEMINUSTWO:
+			return accepting1 && !accepting2;
+		case TWOMINUSONE:
+			return !accepting1 && accepting2;
+		case UNIONCOMPLEMENT:
+			return !accepting1 && !accepting2;
+		case SYMMETRICDIFFERENCE:
+			return accepting1 != accepting2;
+		case UNION:
+			return accepting1 || accepting2;
+		case ORIGINAL1:
+			return accepting1;
+		case ORIGINAL2:
+			return accepting2;
+		default:
+			return PDFALanguageType.INTERSECTION.isAccepting(accepting1, accepting2);
+		}
+	}
 }
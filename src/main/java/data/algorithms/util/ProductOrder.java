@@ -0,0 +1,84 @@
+package data.algorithms.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
+import data.math.definitions.BinaryTuple;
+
+/**
+ * Enum class that represents strategies to order a list of dfas before they are multiplied one after another.
+ * The following strategies are given:
+	 * INPUT: the dfas are multiplied in the order of the list
+	 * SMALLEST_FIRST: the dfas are multiplied in increasing order of their number of states
+	 * SHARED_SYMBOLS: starting with the smallest dfa, the next dfa is always the one that shares the most
+	 * 				relevant symbols with the dfas multiplied so far. A symbol is relevant for a dfa if it changes the state of the dfa somewhere.
+	 * 				For constraint dfas these are the activities of the constraint, so constraints on the same activities are grouped.
+ *
+ */
+public enum ProductOrder {
+	INPUT,
+	SMALLEST_FIRST,
+	SHARED_SYMBOLS;
+
+	/**
+	 * Returns the given dfas in the order defined by this strategy. Ties are broken by the order of the input list.
+	 * @param dfas the dfas to order
+	 * @return a new list with the ordered dfas
+	 */
+	public List<DFA> order(List<DFA> dfas) {
+		List<DFA> ordered = new ArrayList<>(dfas);
+		switch(this) {
+		case SMALLEST_FIRST:
+			ordered.sort(Comparator.comparingInt(dfa -> dfa.getStates().size()));
+			return ordered;
+		case SHARED_SYMBOLS:
+			return orderBySharedSymbols(ordered);
+		default:
+			return ordered;
+		}
+	}
+
+	private static List<DFA> orderBySharedSymbols(List<DFA> dfas) {
+		List<Set<Symbol>> relevant = new ArrayList<>(dfas.size());
+		for(DFA dfa: dfas)
+			relevant.add(getRelevantSymbols(dfa));
+
+		List<DFA> ordered = new ArrayList<>(dfas.size());
+		Set<Symbol> covered = new HashSet<>();
+		boolean[] used = new boolean[dfas.size()];
+		for(int step = 0; step < dfas.size(); step++) {
+			int best = -1;
+			int bestShared = -1;
+			for(int i = 0; i < dfas.size(); i++) {
+				if(used[i])
+					continue;
+				int shared = SetOperations.intersection(covered, relevant.get(i)).size();
+				if(shared > bestShared || (shared == bestShared && dfas.get(i).getStates().size() < dfas.get(best).getStates().size())) {
+					best = i;
+					bestShared = shared;
+				}
+			}
+			used[best] = true;
+			ordered.add(dfas.get(best));
+			covered.addAll(relevant.get(best));
+		}
+		return ordered;
+	}
+
+	/**
+	 * @return the symbols that lead from some state of the dfa to a different state
+	 */
+	private static Set<Symbol> getRelevantSymbols(DFA dfa) {
+		Set<Symbol> symbols = new HashSet<>();
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: dfa.getTransitionFunction().getTuples())
+			if(!tuple.getFirst().getFirst().equals(tuple.getSecond()))
+				symbols.add(tuple.getFirst().getSecond());
+		return symbols;
+	}
+}
@@ -82,7 +82,7 @@ public class SetOperations {
 	 * @return the union of both alphabets
 	 */
 	public static Alphabet unionAlphabet(Alphabet alphabet1, Alphabet alphabet2){
-		return AutomatonFactory.createAlphabet(union(alphabet1.getSymbols(),alphabet2.getSymbols()));
+		return AutomatonFactory.createUnionAlphabet(alphabet1,alphabet2);
 	}
 
 	/**
@@ -92,7 +92,7 @@ public class SetOperations {
 	 * @return the intersection of both alphabets
 	 */
 	public static Alphabet intersectionAlphabet(Alphabet alphabet1, Alphabet alphabet2){
-		return AutomatonFactory.createAlphabet(intersection(alphabet1.getSymbols(),alphabet2.getSymbols()));
+		return AutomatonFactory.createIntersectionAlphabet(alphabet1,alphabet2);
 	}
 
 	/**
@@ -103,6 +103,6 @@ public class SetOperations {
 	 * @return relative complement of alphabet2 in alphabet1
 	 */
 	public static Alphabet complementAlphabet(Alphabet alphabet1, Alphabet alphabet2){
-		return AutomatonFactory.createAlphabet(complement(alphabet1.getSymbols(),alphabet2.getSymbols()));
+		return AutomatonFactory.createComplementAlphabet(alphabet1,alphabet2);
 	}
 }
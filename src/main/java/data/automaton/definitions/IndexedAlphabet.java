@@ -0,0 +1,29 @@
+package data.automaton.definitions;
+
+/**
+ * An interface for an alphabet whose symbols are numbered by ordinals.
+ * The symbols are numbered 0 ... k-1 in increasing order of their characters.
+ * Table driven automata can use these ordinals to map characters to columns without creating symbols.
+ *
+ */
+public interface IndexedAlphabet extends Alphabet {
+
+	/**
+	 * @param index ordinal of a symbol
+	 * @throws IndexOutOfBoundsException if index is not in 0 ... k-1
+	 * @return the symbol with the given ordinal
+	 */
+	public Symbol getSymbol(int index);
+
+	/**
+	 * @param character a character
+	 * @return the ordinal of the symbol of the character or -1 if it is not in this alphabet
+	 */
+	public int indexOf(char character);
+
+	/**
+	 * @param character a character
+	 * @return true if and only if the symbol of the character is in this alphabet
+	 */
+	public boolean contains(char character);
+}
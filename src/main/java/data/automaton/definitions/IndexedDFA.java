@@ -0,0 +1,73 @@
+package data.automaton.definitions;
+
+/**
+ * An interface for a DFA whose states and symbols are numbered by ordinals.
+ * The states are numbered 0 ... n-1 and the symbols 0 ... k-1.
+ * Algorithms can use these ordinals to read the transition table directly instead of applying the tuple based transition function.
+ *
+ */
+public interface IndexedDFA extends DFA {
+
+	/**
+	 * @return the number n of states of this DFA
+	 */
+	public int getStateCount();
+
+	/**
+	 * @return the number k of symbols in the alphabet of this DFA
+	 */
+	public int getSymbolCount();
+
+	/**
+	 * @param index ordinal of a state
+	 * @throws IndexOutOfBoundsException if index is not in 0 ... n-1
+	 * @return the state with the given ordinal
+	 */
+	public State getState(int index);
+
+	/**
+	 * @param index ordinal of a symbol
+	 * @throws IndexOutOfBoundsException if index is not in 0 ... k-1
+	 * @return the symbol with the given ordinal
+	 */
+	public Symbol getSymbol(int index);
+
+	/**
+	 * @param state a state
+	 * @return the ordinal of the state or -1 if it is not a state of this DFA
+	 */
+	public int indexOf(State state);
+
+	/**
+	 * @param symbol a symbol
+	 * @return the ordinal of the symbol or -1 if it is not in the alphabet of this DFA
+	 */
+	public int indexOf(Symbol symbol);
+
+	/**
+	 * @return the ordinal of the start state
+	 */
+	public int getStartIndex();
+
+	/**
+	 * @param state ordinal of a state
+	 * @return true if and only if the state with the given ordinal is accepting
+	 */
+	public boolean isAccepting(int state);
+
+	/**
+	 * Looks up the transition for a state and a symbol in the transition table.
+	 * @param state ordinal of the origin state
+	 * @param symbol ordinal of the symbol
+	 * @return the ordinal of the destination state or -1 if the transition is not defined
+	 */
+	public int next(int state, int symbol);
+
+	/**
+	 * Looks up the origins of all transitions into a state in the inverse adjacency index of this DFA.
+	 * The index is created on the first request and kept.
+	 * @param state ordinal of the destination state
+	 * @return the ordinals of the origin states. An origin appears once for every symbol that leads into the state.
+	 */
+	public int[] previous(int state);
+}
@@ -0,0 +1,22 @@
+package data.automaton.definitions;
+
+/**
+ * An interface for the product of two DFAs whose states are pairs of states of the original DFAs.
+ * Besides the acceptance of a pair state it keeps whether the first and the second state of the pair are accepting,
+ * so languages of different product types can be read from one product.
+ *
+ */
+public interface ProductDFA extends IndexedDFA {
+
+	/**
+	 * @param state ordinal of a pair state
+	 * @return true if and only if the state of the first DFA in the pair is accepting
+	 */
+	public boolean isAcceptingFirst(int state);
+
+	/**
+	 * @param state ordinal of a pair state
+	 * @return true if and only if the state of the second DFA in the pair is accepting
+	 */
+	public boolean isAcceptingSecond(int state);
+}
@@ -1,9 +1,12 @@
 package data.automaton.implementations;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import data.automaton.definitions.*;
+import data.math.definitions.BinaryTuple;
 import data.math.definitions.TransitionFunction;
 import data.math.implementations.MathFactory;
 
@@ -13,6 +16,11 @@ import data.math.implementations.MathFactory;
  */
 public class AutomatonFactory {
 	
+	/**
+	 * The interned symbols, indexed by their characters. Every entry is created on first use.
+	 */
+	private static final AtomicReferenceArray<Symbol> SYMBOLS = new AtomicReferenceArray<>(Character.MAX_VALUE + 1);
+	
 	private AutomatonFactory() {}
 
 	/**
@@ -31,13 +39,59 @@ public class AutomatonFactory {
 
 	/**
 	 * Creates a DFA as a copy of a given dfa. 
+	 * Indexed DFAs are converted to a DFA with a tuple based transition function.
 	 * @param dfa the dfa to copy
 	 * @return a new DFA
 	 */
 	public static DFA createDFA(DFA dfa) {
+		if(dfa instanceof IndexedDFA)
+			return new SimpleDFA(dfa.getStates(),dfa.getAlphabet(),MathFactory.createTransitionFunction(dfa.getTransitionFunction().getTuples()),dfa.getStartState(),dfa.getAcceptingStates());
 		return new SimpleDFA(dfa.getStates(),dfa.getAlphabet(),dfa.getTransitionFunction(),dfa.getStartState(),dfa.getAcceptingStates());
 	}
 
+	/**
+	 * Creates an indexed DFA from a transition table.
+	 * @param states the states in order of their ordinals
+	 * @param symbols the symbols in order of their ordinals
+	 * @param transitionTable the transition table. The entry transitionTable[i * symbols.size() + j] is the ordinal of d(state i, symbol j) or -1 if it is undefined.
+	 * @param startIndex the ordinal of the start state
+	 * @param accepting accepting[i] defines whether or not the state with ordinal i is accepting
+	 * @return a new indexed DFA
+	 */
+	public static IndexedDFA createIndexedDFA(List<State> states, List<Symbol> symbols, int[] transitionTable, int startIndex, boolean[] accepting) {
+		return new IntDFA(states,symbols,transitionTable,startIndex,accepting);
+	}
+
+	/**
+	 * Creates a product DFA from a transition table.
+	 * @param states the pair states in order of their ordinals
+	 * @param symbols the symbols in order of their ordinals
+	 * @param transitionTable the transition table. The entry transitionTable[i * symbols.size() + j] is the ordinal of d(state i, symbol j) or -1 if it is undefined.
+	 * @param startIndex the ordinal of the start state
+	 * @param accepting accepting[i] defines whether or not the pair state with ordinal i is accepting
+	 * @param acceptingFirst acceptingFirst[i] defines whether or not the first state of the pair state with ordinal i is accepting
+	 * @param acceptingSecond acceptingSecond[i] defines whether or not the second state of the pair state with ordinal i is accepting
+	 * @return a new product DFA
+	 */
+	public static ProductDFA createProductDFA(List<State> states, List<Symbol> symbols, int[] transitionTable, int startIndex, boolean[] accepting,
+			boolean[] acceptingFirst, boolean[] acceptingSecond) {
+		return new IntProductDFA(states,symbols,transitionTable,startIndex,accepting,acceptingFirst,acceptingSecond);
+	}
+
+	/**
+	 * Returns an indexed DFA equivalent to the given DFA with the same states and symbols.
+	 * If the given DFA is indexed already, it is returned itself.
+	 * @param dfa the dfa to convert
+	 * @return an indexed DFA
+	 */
+	public static IndexedDFA createIndexedDFA(DFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException("The input dfa must not be null!");
+		if(dfa instanceof IndexedDFA)
+			return (IndexedDFA) dfa;
+		return new IntDFA(dfa);
+	}
+
 	/**
 	 * Creates a DFA that decides A* for alphabet A. 
 	 * The start_state will get an arbitrary name.
@@ -51,13 +105,16 @@ public class AutomatonFactory {
 	/**
 	 * Creates a DFA that decides A* for alphabet A. 
 	 * @param alphabet alphabet
-	 * @param startState the start state. The only state of the dfa.
-	 * @return a new DFA that decides the empty set
+	 * @param startState the start state. The only state of the dfa, it is accepting and has a loop for every symbol.
+	 * @return a new DFA that decides A*
 	 */
 	public static DFA createKleeneStartDFA(Alphabet alphabet,State startState) {
 		Set<State> states = new HashSet<>();
 		Set<State> accStates = new HashSet<>();
-		TransitionFunction function = MathFactory.createTransitionFunction(new HashSet<>());
+		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> loops = new HashSet<>();
+		for(Symbol symbol: alphabet.getSymbols())
+			loops.add(MathFactory.createBinaryTuple(MathFactory.createBinaryTuple(startState, symbol), startState));
+		TransitionFunction function = MathFactory.createTransitionFunction(loops);
 		states.add(startState);
 		accStates.add(startState);
 		
@@ -90,12 +147,12 @@ public class AutomatonFactory {
 	}
 	
 	/**
-	 * Creates a new Alphabet
+	 * Creates a new Alphabet. Its symbols are numbered in increasing order of their characters.
 	 * @param symbols set of symbols that define this alphabet
 	 * @return a new alphabet
 	 */
-	public static Alphabet createAlphabet(Set<Symbol> symbols) {
-		return new SimpleAlphabet(symbols);
+	public static IndexedAlphabet createAlphabet(Set<Symbol> symbols) {
+		return new OrdinalAlphabet(symbols);
 	}
 
 	/**
@@ -104,27 +161,74 @@ public class AutomatonFactory {
 	 * @throws IllegalArgumentException if the input alphabet is null
 	 * @return a new alphabet identical to the input alphabet
 	 */
-	public static Alphabet createAlphabet(Alphabet alphabet) {
+	public static IndexedAlphabet createAlphabet(Alphabet alphabet) {
 		if(alphabet == null)
 			throw new IllegalArgumentException("The input alphabet must not be null!");
-		return new SimpleAlphabet(alphabet.getSymbols());
+		return new OrdinalAlphabet(alphabet.getSymbols());
+	}
+	
+	/**
+	 * Creates the union of two alphabets. It is computed bitwise if both alphabets were created by this factory.
+	 * @param alphabet1 the first alphabet
+	 * @param alphabet2 the second alphabet
+	 * @return a new alphabet with the symbols of both alphabets
+	 */
+	public static IndexedAlphabet createUnionAlphabet(Alphabet alphabet1, Alphabet alphabet2) {
+		if(alphabet1 == null || alphabet2 == null)
+			throw new IllegalArgumentException("The input alphabets must not be null!");
+		return OrdinalAlphabet.union(asOrdinalAlphabet(alphabet1), asOrdinalAlphabet(alphabet2));
+	}
+	
+	/**
+	 * Creates the intersection of two alphabets. It is computed bitwise if both alphabets were created by this factory.
+	 * @param alphabet1 the first alphabet
+	 * @param alphabet2 the second alphabet
+	 * @return a new alphabet with the symbols that are in both alphabets
+	 */
+	public static IndexedAlphabet createIntersectionAlphabet(Alphabet alphabet1, Alphabet alphabet2) {
+		if(alphabet1 == null || alphabet2 == null)
+			throw new IllegalArgumentException("The input alphabets must not be null!");
+		return OrdinalAlphabet.intersection(asOrdinalAlphabet(alphabet1), asOrdinalAlphabet(alphabet2));
+	}
+	
+	/**
+	 * Creates the relative complement of alphabet2 in alphabet1. It is computed bitwise if both alphabets were created by this factory.
+	 * @param alphabet1 the first alphabet
+	 * @param alphabet2 the second alphabet
+	 * @return a new alphabet with the symbols of alphabet1 that are not in alphabet2
+	 */
+	public static IndexedAlphabet createComplementAlphabet(Alphabet alphabet1, Alphabet alphabet2) {
+		if(alphabet1 == null || alphabet2 == null)
+			throw new IllegalArgumentException("The input alphabets must not be null!");
+		return OrdinalAlphabet.complement(asOrdinalAlphabet(alphabet1), asOrdinalAlphabet(alphabet2));
+	}
+	
+	private static OrdinalAlphabet asOrdinalAlphabet(Alphabet alphabet) {
+		return alphabet instanceof OrdinalAlphabet ? (OrdinalAlphabet) alphabet : new OrdinalAlphabet(alphabet.getSymbols());
 	}
 	
 	/**
-	 * Creates a new State
+	 * Returns the state with the given name. States are interned, so all calls with equal names return the same instance.
 	 * @param name name of the state
-	 * @return a new state with the given name
+	 * @return the state with the given name
 	 */
 	public static State createState(String name) {
-		return new SimpleState(name);
+		if(name == null) 
+			throw new IllegalArgumentException("The name of a state must not be null!");
+		return StatePool.intern(name);
 	}
 	
 	/**
-	 * Creates a new symbol
+	 * Returns the symbol of the given character. Symbols are interned, so all calls with equal characters return the same instance.
 	 * @param character character of this symbol
-	 * @return a new symbol, that references the given character
+	 * @return the symbol, that references the given character
 	 */
 	public static Symbol createSymbol(char character) {
-		return new SimpleSymbol(character);
+		Symbol symbol = SYMBOLS.get(character);
+		if(symbol == null) {
+			SYMBOLS.compareAndSet(character, null, new SimpleSymbol(character));
+			symbol = SYMBOLS.get(character);
+		}
+		return symbol;
 	}
 }
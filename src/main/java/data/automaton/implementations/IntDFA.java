@@ -0,0 +1,300 @@
+package data.automaton.implementations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import data.algorithms.util.DFATraversal;
+
+import data.automaton.definitions.Alphabet;
+import data.automaton.definitions.IndexedAlphabet;
+import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
+import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
+import data.math.definitions.BinaryTuple;
+import data.math.definitions.Relation;
+import data.math.definitions.TransitionFunction;
+import data.math.implementations.MathFactory;
+
+/**
+ * This class is a dense implementation of the DFA interface.
+ * States and symbols are stored as ordinals and the transitions in a flat table table[state * k + symbol] (k being the size of the alphabet).
+ * Undefined transitions are marked with -1. It is immutable after creation.
+ */
+class IntDFA implements IndexedDFA {
+
+	private State[] states;
+	private Symbol[] symbols;
+	private Map<State,Integer> stateIndices;
+	private int[] columns;
+	private int[] table;
+	private int startIndex;
+	private boolean[] accepting;
+
+	private Set<State> stateSet;
+	private Set<State> acceptingStateSet;
+	private IndexedAlphabet alphabet;
+	private IntTransitionFunction transitionFunction;
+	private Relation<BinaryTuple<State,Symbol>,State> inverseTransitionRelation;
+
+	/**
+	 * Creates a new immutable DFA from a transition table.
+	 * @throws IllegalArgumentException if the parameters either do not define a DFA or include null values.
+	 * @param states the states in order of their ordinals
+	 * @param symbols the symbols in order of their ordinals
+	 * @param table the transition table of size states.size() * symbols.size(). Entries are ordinals of states or -1.
+	 * @param startIndex the ordinal of the start state
+	 * @param accepting accepting[i] defines whether or not the state with ordinal i is accepting
+	 */
+	IntDFA(List<State> states, List<Symbol> symbols, int[] table, int startIndex, boolean[] accepting) {
+		if(states == null || symbols == null || table == null || accepting == null)
+			throw new IllegalArgumentException("The parameters of a FA must not be null!");
+		if(states.contains(null))
+			throw new IllegalArgumentException("The set of states for a FA must not include null!");
+		if(symbols.contains(null))
+			throw new IllegalArgumentException("The alphabet for a FA must not include null!");
+		if(startIndex < 0 || startIndex >= states.size())
+			throw new IllegalArgumentException("The start state must be element of the state set!");
+		if(accepting.length != states.size())
+			throw new IllegalArgumentException("The accepting flags must be defined for every state!");
+		if(table.length != states.size() * symbols.size())
+			throw new IllegalArgumentException("The transition table must define an entry for every state and symbol!");
+		for(int target: table)
+			if(target < -1 || target >= states.size())
+				throw new IllegalArgumentException("The transition function uses states not defined in the definition of this automaton!");
+
+		this.states = states.toArray(new State[0]);
+		this.symbols = symbols.toArray(new Symbol[0]);
+		this.table = table.clone();
+		this.startIndex = startIndex;
+		this.accepting = accepting.clone();
+		initIndices();
+		initViews();
+	}
+
+	/**
+	 * Creates a new immutable DFA that is equivalent to the given DFA and uses the same states and symbols.
+	 * The start state gets the ordinal 0, the symbols are ordered by their characters.
+	 * @param dfa the dfa to convert
+	 */
+	IntDFA(DFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException("The input dfa must not be null!");
+
+		List<State> stateList = new ArrayList<>(dfa.getStates().size());
+		stateList.add(dfa.getStartState());
+		for(State state: dfa.getStates())
+			if(!state.equals(dfa.getStartState()))
+				stateList.add(state);
+		List<Symbol> symbolList = new ArrayList<>(dfa.getAlphabet().getSymbols());
+		symbolList.sort(Comparator.comparing(Symbol::getChar));
+
+		states = stateList.toArray(new State[0]);
+		symbols = symbolList.toArray(new Symbol[0]);
+		startIndex = 0;
+		initIndices();
+
+		accepting = new boolean[states.length];
+		for(State state: dfa.getAcceptingStates())
+			accepting[stateIndices.get(state)] = true;
+
+		table = new int[states.length * symbols.length];
+		Arrays.fill(table, -1);
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: dfa.getTransitionFunction().getTuples())
+			table[stateIndices.get(tuple.getFirst().getFirst()) * symbols.length
+			      + indexOf(tuple.getFirst().getSecond())] = stateIndices.get(tuple.getSecond());
+		initViews();
+	}
+
+	private void initIndices() {
+		stateIndices = new HashMap<>(2 * states.length);
+		for(int i = 0; i < states.length; i++)
+			if(stateIndices.put(states[i], i) != null)
+				throw new IllegalArgumentException("The set of states for a FA must not include a state twice!");
+		alphabet = AutomatonFactory.createAlphabet(new HashSet<>(Arrays.asList(symbols)));
+		if(alphabet.size() != symbols.length)
+			throw new IllegalArgumentException("The alphabet for a FA must not include a symbol twice!");
+		/*
+		 * columns maps the ordinals of the alphabet (increasing characters) to the ordinals of this dfa.
+		 */
+		columns = new int[symbols.length];
+		for(int i = 0; i < symbols.length; i++)
+			columns[alphabet.indexOf(symbols[i].getChar())] = i;
+
+		stateSet = Collections.unmodifiableSet(new HashSet<>(stateIndices.keySet()));
+	}
+
+	private void initViews() {
+		Set<State> acceptingStates = new HashSet<>();
+		for(int i = 0; i < states.length; i++)
+			if(accepting[i])
+				acceptingStates.add(states[i]);
+		acceptingStateSet = Collections.unmodifiableSet(acceptingStates);
+		transitionFunction = new IntTransitionFunction(this);
+	}
+
+	@Override
+	public int getStateCount() {
+		return states.length;
+	}
+
+	@Override
+	public int getSymbolCount() {
+		return symbols.length;
+	}
+
+	@Override
+	public State getState(int index) {
+		return states[index];
+	}
+
+	@Override
+	public Symbol getSymbol(int index) {
+		return symbols[index];
+	}
+
+	@Override
+	public int indexOf(State state) {
+		Integer index = stateIndices.get(state);
+		return index == null ? -1 : index;
+	}
+
+	@Override
+	public int indexOf(Symbol symbol) {
+		int index = symbol == null ? -1 : alphabet.indexOf(symbol.getChar());
+		return index < 0 ? -1 : columns[index];
+	}
+
+	@Override
+	public int getStartIndex() {
+		return startIndex;
+	}
+
+	@Override
+	public boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	@Override
+	public int next(int state, int symbol) {
+		return table[state * symbols.length + symbol];
+	}
+
+	@Override
+	public Set<State> getStates() {
+		return stateSet;
+	}
+
+	@Override
+	public Alphabet getAlphabet() {
+		return alphabet;
+	}
+
+	@Override
+	public TransitionFunction getTransitionFunction() {
+		return transitionFunction;
+	}
+
+	@Override
+	public State getStartState() {
+		return states[startIndex];
+	}
+
+	@Override
+	public Set<State> getAcceptingStates() {
+		return acceptingStateSet;
+	}
+
+	@Override
+	public Set<State> getNonAcceptingStates() {
+		Set<State> nonAcceptingStates = new HashSet<>();
+		for(int i = 0; i < states.length; i++)
+			if(!accepting[i])
+				nonAcceptingStates.add(states[i]);
+		return Collections.unmodifiableSet(nonAcceptingStates);
+	}
+
+	@Override
+	public int[] previous(int state) {
+		return transitionFunction.getOrigins(state);
+	}
+
+	/**
+	 * The inverse relation is created on the first request and kept.
+	 */
+	@Override
+	public synchronized Relation<BinaryTuple<State, Symbol>, State> getInverseTransitionRelation() {
+		if(inverseTransitionRelation == null)
+			inverseTransitionRelation = MathFactory.createInverseTransitionRelation(transitionFunction, alphabet);
+		return inverseTransitionRelation;
+	}
+
+	@Override
+	public boolean accepts(String word) {
+		if(word == null)
+			throw new IllegalArgumentException("The word must not be null!");
+		if(!alphabet.isInKleeneStar(word))
+			throw new IllegalArgumentException("The word is not in the kleene star of this alphabet!");
+
+		int current = startIndex;
+		for(int i = 0; i < word.length() && current >= 0; i++)
+			current = next(current, columns[alphabet.indexOf(word.charAt(i))]);
+		return current >= 0 && accepting[current];
+	}
+
+	@Override
+	public boolean isComplete() {
+		for(int target: table)
+			if(target < 0)
+				return false;
+		return true;
+	}
+
+	@Override
+	public Set<String> acceptsOfLength(int length) {
+		return new HashSet<>(DFATraversal.getWords(this, state -> accepting[state], length, true));
+	}
+
+	@Override
+	public Set<String> acceptsUntilLength(int length) {
+		return new HashSet<>(DFATraversal.getWords(this, state -> accepting[state], length, false));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(!(o instanceof DFA)) return false;
+		DFA f = (DFA) o;
+		return getStates().equals(f.getStates())
+				&& alphabet.equals(f.getAlphabet())
+				&& getTransitionFunction().equals(f.getTransitionFunction())
+				&& getStartState().equals(f.getStartState())
+				&& getAcceptingStates().equals(f.getAcceptingStates());
+	}
+
+	@Override
+	public int hashCode() {
+		return getStates().hashCode()
+				+ alphabet.hashCode()
+				+ getTransitionFunction().hashCode()
+				+ getStartState().hashCode()
+				+ getAcceptingStates().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "{" + System.lineSeparator()
+				+ "\"States\": " + getStates().toString() + "," + System.lineSeparator()
+				+ "\"Alphabet\": " + alphabet.toString() + ", " + System.lineSeparator()
+				+ "\"TransitionFunction\": " + getTransitionFunction().toString() + ", " + System.lineSeparator()
+				+ "\"StartState\": " + getStartState().toString() + ", " + System.lineSeparator()
+				+ "\"AcceptingStates\": " + getAcceptingStates().toString() + System.lineSeparator() + "}";
+	}
+}
@@ -0,0 +1,49 @@
+package data.automaton.implementations;
+
+import java.util.List;
+
+import data.automaton.definitions.ProductDFA;
+import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
+
+/**
+ * This class is a dense implementation of the ProductDFA interface.
+ * It is an IntDFA that additionally stores the acceptance of both states of every pair state.
+ */
+class IntProductDFA extends IntDFA implements ProductDFA {
+
+	private boolean[] acceptingFirst;
+	private boolean[] acceptingSecond;
+
+	/**
+	 * Creates a new immutable product DFA from a transition table.
+	 * @throws IllegalArgumentException if the parameters either do not define a DFA or include null values.
+	 * @param states the pair states in order of their ordinals
+	 * @param symbols the symbols in order of their ordinals
+	 * @param table the transition table of size states.size() * symbols.size(). Entries are ordinals of states or -1.
+	 * @param startIndex the ordinal of the start state
+	 * @param accepting accepting[i] defines whether or not the pair state with ordinal i is accepting
+	 * @param acceptingFirst acceptingFirst[i] defines whether or not the first state of the pair state with ordinal i is accepting
+	 * @param acceptingSecond acceptingSecond[i] defines whether or not the second state of the pair state with ordinal i is accepting
+	 */
+	IntProductDFA(List<State> states, List<Symbol> symbols, int[] table, int startIndex, boolean[] accepting,
+			boolean[] acceptingFirst, boolean[] acceptingSecond) {
+		super(states, symbols, table, startIndex, accepting);
+		if(acceptingFirst == null || acceptingSecond == null)
+			throw new IllegalArgumentException("The parameters of a FA must not be null!");
+		if(acceptingFirst.length != states.size() || acceptingSecond.length != states.size())
+			throw new IllegalArgumentException("The accepting flags must be defined for every state!");
+		this.acceptingFirst = acceptingFirst.clone();
+		this.acceptingSecond = acceptingSecond.clone();
+	}
+
+	@Override
+	public boolean isAcceptingFirst(int state) {
+		return acceptingFirst[state];
+	}
+
+	@Override
+	public boolean isAcceptingSecond(int state) {
+		return acceptingSecond[state];
+	}
+}
@@ -0,0 +1,265 @@
+package data.automaton.implementations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import data.automaton.definitions.IndexedDFA;
+import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
+import data.math.definitions.BinaryTuple;
+import data.math.definitions.Function;
+import data.math.definitions.Relation;
+import data.math.definitions.TransitionFunction;
+import data.math.exceptions.OutOfDomainException;
+import data.math.implementations.MathFactory;
+
+/**
+ * A transition function that is backed by the transition table of an indexed DFA.
+ * Applying it is a table lookup. The tuple set and the inverse adjacency index are only created if they are requested.
+ */
+class IntTransitionFunction implements TransitionFunction {
+
+	private IndexedDFA dfa;
+	private Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> tuples;
+	private int[] inverseOffsets;
+	private int[] inverseOrigins;
+
+	IntTransitionFunction(IndexedDFA dfa) {
+		if(dfa == null)
+			throw new IllegalArgumentException("The input dfa must not be null!");
+		this.dfa = dfa;
+	}
+
+	@Override
+	public State apply(State state, Symbol symbol) throws OutOfDomainException {
+		State destination = applyOrNull(state, symbol);
+		if(destination == null)
+			throw new OutOfDomainException();
+		return destination;
+	}
+
+	@Override
+	public State applyOrNull(State state, Symbol symbol) {
+		if(state == null || symbol == null)
+			throw new IllegalArgumentException("Value must not be null!");
+		int origin = dfa.indexOf(state);
+		int letter = dfa.indexOf(symbol);
+		if(origin < 0 || letter < 0)
+			return null;
+		int target = dfa.next(origin, letter);
+		return target < 0 ? null : dfa.getState(target);
+	}
+
+	@Override
+	public State apply(BinaryTuple<State, Symbol> value) throws OutOfDomainException {
+		if(value == null)
+			throw new IllegalArgumentException("Value must not be null!");
+		return apply(value.getFirst(), value.getSecond());
+	}
+
+	@Override
+	public Function<BinaryTuple<State, Symbol>, State> getFunction() {
+		return this;
+	}
+
+	@Override
+	public Relation<BinaryTuple<State, Symbol>, State> getRelation() {
+		return this;
+	}
+
+	@Override
+	public Set<BinaryTuple<State, Symbol>> getDomain() {
+		Set<BinaryTuple<State,Symbol>> domain = new HashSet<>();
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: getTuples())
+			domain.add(tuple.getFirst());
+		return Collections.unmodifiableSet(domain);
+	}
+
+	@Override
+	public Set<State> getCodomain() {
+		Set<State> codomain = new HashSet<>();
+		for(int state = 0; state < dfa.getStateCount(); state++)
+			for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++)
+				if(dfa.next(state, symbol) >= 0)
+					codomain.add(dfa.getState(dfa.next(state, symbol)));
+		return Collections.unmodifiableSet(codomain);
+	}
+
+	@Override
+	public Set<BinaryTuple<State, Symbol>> getPreimage(State value) {
+		if(value == null)
+			throw new IllegalArgumentException("The value must not be null!");
+		Set<BinaryTuple<State,Symbol>> preimage = new HashSet<>();
+		int target = dfa.indexOf(value);
+		if(target < 0)
+			return preimage;
+		createInverseIndex();
+		for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+			int key = target * dfa.getSymbolCount() + symbol;
+			for(int i = inverseOffsets[key]; i < inverseOffsets[key + 1]; i++)
+				preimage.add(MathFactory.createBinaryTuple(dfa.getState(inverseOrigins[i]), dfa.getSymbol(symbol)));
+		}
+		return Collections.unmodifiableSet(preimage);
+	}
+
+	@Override
+	public Set<State> getImage(BinaryTuple<State, Symbol> value) {
+		if(value == null)
+			throw new IllegalArgumentException("The value must not be null!");
+		State destination = applyOrNull(value.getFirst(), value.getSecond());
+		return destination == null ? Collections.emptySet() : Collections.singleton(destination);
+	}
+
+	@Override
+	public synchronized Set<BinaryTuple<BinaryTuple<State, Symbol>, State>> getTuples() {
+		if(tuples == null) {
+			Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> newTuples = new HashSet<>();
+			for(int state = 0; state < dfa.getStateCount(); state++)
+				for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++)
+					if(dfa.next(state, symbol) >= 0)
+						newTuples.add(MathFactory.createTransition(dfa.getState(state), dfa.getSymbol(symbol), dfa.getState(dfa.next(state, symbol))));
+			tuples = Collections.unmodifiableSet(newTuples);
+		}
+		return tuples;
+	}
+
+	@Override
+	public boolean isFunction() {
+		return true;
+	}
+
+	@Override
+	public boolean isRightUnique() {
+		return true;
+	}
+
+	@Override
+	public boolean isLeftUnique() {
+		boolean[] reached = new boolean[dfa.getStateCount()];
+		for(int state = 0; state < dfa.getStateCount(); state++)
+			for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+				int target = dfa.next(state, symbol);
+				if(target < 0)
+					continue;
+				if(reached[target])
+					return false;
+				reached[target] = true;
+			}
+		return true;
+	}
+
+	@Override
+	public Set<State> getDomainStates() {
+		Set<State> domainStates = new HashSet<>();
+		for(int state = 0; state < dfa.getStateCount(); state++)
+			for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++)
+				if(dfa.next(state, symbol) >= 0) {
+					domainStates.add(dfa.getState(state));
+					break;
+				}
+		return domainStates;
+	}
+
+	@Override
+	public Set<State> getPreimageStates(State target) {
+		if(target == null)
+			throw new IllegalArgumentException("The target state must not be null!");
+		Set<State> preimageStates = new HashSet<>();
+		int destination = dfa.indexOf(target);
+		if(destination < 0)
+			return preimageStates;
+		createInverseIndex();
+		int k = dfa.getSymbolCount();
+		for(int i = inverseOffsets[destination * k]; i < inverseOffsets[(destination + 1) * k]; i++)
+			preimageStates.add(dfa.getState(inverseOrigins[i]));
+		return preimageStates;
+	}
+
+	@Override
+	public Set<State> getPreimageStates(Symbol symbol, State target) {
+		if(target == null)
+			throw new IllegalArgumentException("The target state must not be null!");
+		Set<State> preimageStates = new HashSet<>();
+		int destination = dfa.indexOf(target);
+		int letter = dfa.indexOf(symbol);
+		if(destination < 0 || letter < 0)
+			return preimageStates;
+		createInverseIndex();
+		int key = destination * dfa.getSymbolCount() + letter;
+		for(int i = inverseOffsets[key]; i < inverseOffsets[key + 1]; i++)
+			preimageStates.add(dfa.getState(inverseOrigins[i]));
+		return preimageStates;
+	}
+
+	/**
+	 * Reads the origins of all transitions into a state from the inverse adjacency index.
+	 * @param target ordinal of the destination state
+	 * @return the ordinals of the origin states, once for every symbol that leads into the destination
+	 */
+	int[] getOrigins(int target) {
+		createInverseIndex();
+		int k = dfa.getSymbolCount();
+		return Arrays.copyOfRange(inverseOrigins, inverseOffsets[target * k], inverseOffsets[(target + 1) * k]);
+	}
+
+	/**
+	 * Creates the inverse adjacency index of the transition table on first use.
+	 * The origins of all transitions into state t by symbol a are stored in
+	 * inverseOrigins[inverseOffsets[t * k + a]] ... inverseOrigins[inverseOffsets[t * k + a + 1] - 1].
+	 */
+	private synchronized void createInverseIndex() {
+		if(inverseOrigins != null)
+			return;
+		int n = dfa.getStateCount();
+		int k = dfa.getSymbolCount();
+		int[] offsets = new int[n * k + 1];
+		for(int state = 0; state < n; state++)
+			for(int symbol = 0; symbol < k; symbol++)
+				if(dfa.next(state, symbol) >= 0)
+					offsets[dfa.next(state, symbol) * k + symbol + 1]++;
+		for(int key = 0; key < n * k; key++)
+			offsets[key + 1] += offsets[key];
+		int[] fill = Arrays.copyOf(offsets, n * k);
+		int[] origins = new int[offsets[n * k]];
+		for(int state = 0; state < n; state++)
+			for(int symbol = 0; symbol < k; symbol++)
+				if(dfa.next(state, symbol) >= 0)
+					origins[fill[dfa.next(state, symbol) * k + symbol]++] = state;
+		inverseOffsets = offsets;
+		inverseOrigins = origins;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(!(o instanceof Relation)) return false;
+
+		Relation<?,?> r = (Relation<?,?>) o;
+		return r.getTuples().equals(getTuples());
+	}
+
+	@Override
+	public int hashCode() {
+		int i = 0;
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: getTuples())
+			i += tuple.hashCode();
+		return i;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("[");
+		int i = 0;
+		for(BinaryTuple<BinaryTuple<State,Symbol>, State> tuple: getTuples()) {
+			s.append("(" + tuple.getFirst().getFirst().getName()
+					+ ", " + tuple.getFirst().getSecond().getChar()
+					+ ") -> " + tuple.getSecond().getName());
+			if(i < getTuples().size() - 1)
+					s.append(", ");
+			i++;
+		}
+		return s.append("]").toString();
+	}
+}
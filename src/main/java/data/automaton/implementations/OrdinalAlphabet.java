@@ -0,0 +1,215 @@
+package data.automaton.implementations;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import data.automaton.definitions.Alphabet;
+import data.automaton.definitions.IndexedAlphabet;
+import data.automaton.definitions.Symbol;
+
+/**
+ * An alphabet that stores its symbols as a bit mask over all characters.
+ * Bit c of the mask is set if the symbol of character c is in the alphabet. All alphabets of this type share the universe of characters,
+ * so union, intersection and complement are bitwise operations on their masks.
+ * The ordinal of a symbol is the number of set bits below its bit, the prefix counts of the mask words make this lookup constant time.
+ */
+class OrdinalAlphabet implements IndexedAlphabet {
+
+	private final long[] mask;
+	private final int[] ranks;
+	private final Symbol[] symbols;
+	private final Set<Symbol> symbolSet;
+
+	OrdinalAlphabet(Set<Symbol> symbols) {
+		this(toMask(symbols));
+	}
+
+	/**
+	 * @param mask the mask of the alphabet, it must not be changed afterwards
+	 */
+	private OrdinalAlphabet(long[] mask) {
+		int length = mask.length;
+		while(length > 0 && mask[length - 1] == 0)
+			length--;
+		this.mask = length == mask.length ? mask : Arrays.copyOf(mask, length);
+		ranks = new int[length];
+		int size = 0;
+		for(int word = 0; word < length; word++) {
+			ranks[word] = size;
+			size += Long.bitCount(this.mask[word]);
+		}
+		symbols = new Symbol[size];
+		int ordinal = 0;
+		for(int word = 0; word < length; word++)
+			for(long bits = this.mask[word]; bits != 0; bits &= bits - 1)
+				symbols[ordinal++] = AutomatonFactory.createSymbol((char) (64 * word + Long.numberOfTrailingZeros(bits)));
+		symbolSet = new SymbolSet();
+	}
+
+	/**
+	 * @return the alphabet with the symbols of both alphabets
+	 */
+	static OrdinalAlphabet union(OrdinalAlphabet alphabet1, OrdinalAlphabet alphabet2) {
+		long[] mask = Arrays.copyOf(alphabet1.mask, Math.max(alphabet1.mask.length, alphabet2.mask.length));
+		for(int word = 0; word < alphabet2.mask.length; word++)
+			mask[word] |= alphabet2.mask[word];
+		return new OrdinalAlphabet(mask);
+	}
+
+	/**
+	 * @return the alphabet with the symbols that are in both alphabets
+	 */
+	static OrdinalAlphabet intersection(OrdinalAlphabet alphabet1, OrdinalAlphabet alphabet2) {
+		long[] mask = Arrays.copyOf(alphabet1.mask, Math.min(alphabet1.mask.length, alphabet2.mask.length));
+		for(int word = 0; word < mask.length; word++)
+			mask[word] &= alphabet2.mask[word];
+		return new OrdinalAlphabet(mask);
+	}
+
+	/**
+	 * @return the alphabet with the symbols of the first alphabet that are not in the second alphabet
+	 */
+	static OrdinalAlphabet complement(OrdinalAlphabet alphabet1, OrdinalAlphabet alphabet2) {
+		long[] mask = alphabet1.mask.clone();
+		for(int word = 0; word < mask.length && word < alphabet2.mask.length; word++)
+			mask[word] &= ~alphabet2.mask[word];
+		return new OrdinalAlphabet(mask);
+	}
+
+	private static long[] toMask(Set<Symbol> symbols) {
+		if(symbols == null)
+			throw new IllegalArgumentException("The set of symbols for this alphabet is null!");
+		int max = -1;
+		for(Symbol symbol: symbols) {
+			if(symbol == null)
+				throw new IllegalArgumentException("The set of symbols for this alphabet includes null!");
+			max = Math.max(max, symbol.getChar());
+		}
+		long[] mask = new long[max / 64 + 1];
+		for(Symbol symbol: symbols)
+			mask[symbol.getChar() >>> 6] |= 1L << symbol.getChar();
+		return mask;
+	}
+
+	@Override
+	public Symbol getSymbol(int index) {
+		return symbols[index];
+	}
+
+	@Override
+	public int indexOf(char character) {
+		int word = character >>> 6;
+		if(word >= mask.length)
+			return -1;
+		long bit = 1L << character;
+		if((mask[word] & bit) == 0)
+			return -1;
+		return ranks[word] + Long.bitCount(mask[word] & (bit - 1));
+	}
+
+	@Override
+	public boolean contains(char character) {
+		int word = character >>> 6;
+		return word < mask.length && (mask[word] & (1L << character)) != 0;
+	}
+
+	@Override
+	public Set<Symbol> getSymbols() {
+		return symbolSet;
+	}
+
+	@Override
+	public boolean contains(Symbol symbol) {
+		return symbol != null && contains(symbol.getChar());
+	}
+
+	@Override
+	public boolean containsAll(Collection<Symbol> symbols) {
+		for(Symbol symbol: symbols)
+			if(!contains(symbol))
+				return false;
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return symbols.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return symbols.length == 0;
+	}
+
+	@Override
+	public Iterator<Symbol> iterator() {
+		return symbolSet.iterator();
+	}
+
+	@Override
+	public boolean isInKleeneStar(String word) {
+		for(int i = 0; i < word.length(); i++)
+			if(!contains(word.charAt(i)))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) return true;
+		if(o instanceof OrdinalAlphabet)
+			return Arrays.equals(mask, ((OrdinalAlphabet) o).mask);
+		if(!(o instanceof Alphabet)) return false;
+		return getSymbols().equals(((Alphabet) o).getSymbols());
+	}
+
+	@Override
+	public int hashCode() {
+		return symbolSet.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return symbolSet.toString();
+	}
+
+	/**
+	 * Unmodifiable set view of the symbols in increasing order of their characters.
+	 */
+	private class SymbolSet extends AbstractSet<Symbol> {
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Symbol && OrdinalAlphabet.this.contains((Symbol) o);
+		}
+
+		@Override
+		public Iterator<Symbol> iterator() {
+			return new Iterator<Symbol>() {
+
+				private int next = 0;
+
+				@Override
+				public boolean hasNext() {
+					return next < symbols.length;
+				}
+
+				@Override
+				public Symbol next() {
+					if(next >= symbols.length)
+						throw new NoSuchElementException();
+					return symbols[next++];
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return symbols.length;
+		}
+	}
+}
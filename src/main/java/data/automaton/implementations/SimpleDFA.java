@@ -2,18 +2,17 @@ package data.automaton.implementations;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Set;
 
+import data.algorithms.util.DFATraversal;
 import data.algorithms.util.SetOperations;
 import data.automaton.definitions.Alphabet;
 import data.automaton.definitions.DFA;
+import data.automaton.definitions.IndexedDFA;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
 import data.math.definitions.Relation;
 import data.math.definitions.TransitionFunction;
-import data.math.exceptions.OutOfDomainException;
 import data.math.definitions.BinaryTuple;
 import data.math.implementations.MathFactory;
 /**
@@ -27,6 +26,7 @@ class SimpleDFA implements DFA {
 	private TransitionFunction transitionFunction;
 	private State startState;
 	private Set<State> acceptingStates;
+	private Relation<BinaryTuple<State,Symbol>,State> inverseTransitionRelation;
 	
 	/**
 	 * Creates a new immutable DFA.
@@ -140,15 +140,14 @@ class SimpleDFA implements DFA {
 				+ "\"AcceptingStates\": " + acceptingStates.toString() + System.lineSeparator() + "}";
 	}
 
+	/**
+	 * The inverse relation is created on the first request and kept.
+	 */
 	@Override
-	public Relation<BinaryTuple<State, Symbol>, State> getInverseTransitionRelation() {
-		Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> inverse = new HashSet<>();
-		
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tupel: getTransitionFunction().getTuples())
-			inverse.add(MathFactory.createTransition(tupel.getSecond(), tupel.getFirst().getSecond(), 
-					tupel.getFirst().getFirst()));
-		
-		return MathFactory.createRelation(inverse);
+	public synchronized Relation<BinaryTuple<State, Symbol>, State> getInverseTransitionRelation() {
+		if(inverseTransitionRelation == null)
+			inverseTransitionRelation = MathFactory.createInverseTransitionRelation(transitionFunction, alphabet);
+		return inverseTransitionRelation;
 	}
 
 	@Override
@@ -157,64 +156,34 @@ class SimpleDFA implements DFA {
 			throw new IllegalArgumentException("The word must not be null!");
 		if(!alphabet.isInKleeneStar(word))
 			throw new IllegalArgumentException("The word is not in the kleene star of this alphabet!");
-		State endState;
-		try {
-			endState = visit(getStartState(),asSymbolList(word));
-		} catch (OutOfDomainException e) {
-			return false;
-		}		
+		State endState = getStartState();
+		for(char c: word.toCharArray()) {
+			endState = getTransitionFunction().applyOrNull(endState,AutomatonFactory.createSymbol(c));
+			if(endState == null)
+				return false;
+		}
 		return getAcceptingStates().contains(endState);
 	}
-	
-	private List<Symbol> asSymbolList(String word){
-		List<Symbol> list = new LinkedList<>();
-		for(char c: word.toCharArray())
-			list.add(AutomatonFactory.createSymbol(c));
-		return list;
-	}
 
 	@Override
 	public boolean isComplete() {		
 		for(State state: getStates())
 			for(Symbol symbol: getAlphabet())
-				if(!getTransitionFunction().getDomain().contains(MathFactory.createBinaryTuple(state, symbol)))
+				if(getTransitionFunction().applyOrNull(state, symbol) == null)
 					return false;
 		return true;
 	}
 
 	@Override
 	public Set<String> acceptsOfLength(int length) {
-		Set<String> accepted = new HashSet<>();
-		visit(accepted,getStartState(),"",0,length,true);
-		return accepted;
+		IndexedDFA dfa = AutomatonFactory.createIndexedDFA(this);
+		return new HashSet<>(DFATraversal.getWords(dfa, dfa::isAccepting, length, true));
 	}
 
 	@Override
 	public Set<String> acceptsUntilLength(int length) {
-		Set<String> accepted = new HashSet<>();
-		visit(accepted,getStartState(),"",0,length,false);
-		return accepted;
-	}
-
-	private void visit(Set<String> accepted, State currentState, String currentWord, int currentDepth, int maxDepth, boolean strictLength) {
-		if(currentDepth > maxDepth)
-			return;
-		if((!strictLength || currentDepth == maxDepth) && acceptingStates.contains(currentState))
-			accepted.add(currentWord);
-
-		for(Symbol symbol: getAlphabet())
-			try {
-				visit(accepted, 
-						getTransitionFunction().apply(currentState,symbol),
-						currentWord + symbol.getChar(),
-						currentDepth + 1, maxDepth, strictLength);
-			} catch (OutOfDomainException e) {}
-	}
-	
-	private State visit(State current, List<Symbol> wordRest) throws OutOfDomainException {
-		if(wordRest.isEmpty())
-			return current;
-		return visit(getTransitionFunction().apply(current,wordRest.remove(0)), wordRest);
+		IndexedDFA dfa = AutomatonFactory.createIndexedDFA(this);
+		return new HashSet<>(DFATraversal.getWords(dfa, dfa::isAccepting, length, false));
 	}
 	
 }
@@ -4,12 +4,17 @@ import data.automaton.definitions.State;
 
 class SimpleState implements State {
 	
-	private String name;
+	private final String name;
+	private final int hash;
 	
+	/**
+	 * States are interned (see StatePool), use AutomatonFactory.createState to get a state.
+	 */
 	SimpleState(String name) {
 		if(name == null) 
 			throw new IllegalArgumentException("The name of a state must not be null!");
 		this.name = name;
+		hash = name.hashCode();
 	}
 
 	@Override
@@ -19,6 +24,7 @@ class SimpleState implements State {
 
 	@Override
 	public boolean equals(Object o) {
+		if(o == this) return true;
 		if(o == null) return false;
 		if(!(o instanceof State)) return false;
 		return name.equals(((State)o).getName());
@@ -26,7 +32,7 @@ class SimpleState implements State {
 	
 	@Override
 	public int hashCode() {
-		return name.hashCode();
+		return hash;
 	}
 	
 	@Override
@@ -4,7 +4,7 @@ import data.automaton.definitions.Symbol;
 
 class SimpleSymbol implements Symbol{
 	
-	private char character;
+	private final char character;
 	
 	SimpleSymbol(char character) {
 		this.character = character;
@@ -17,6 +17,7 @@ class SimpleSymbol implements Symbol{
 	
 	@Override
 	public boolean equals(Object o) {
+		if(o == this) return true;
 		if(o == null) return false;
 		if(!(o instanceof Symbol)) return false;
 		return character == ((Symbol)o).getChar();
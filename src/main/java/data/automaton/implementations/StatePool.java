@@ -0,0 +1,54 @@
+package data.automaton.implementations;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import data.automaton.definitions.State;
+
+/**
+ * Global pool of interned states. There is at most one state per name, so equal states are identical.
+ * The pool only holds weak references, a state that is no longer used anywhere else is collected and its entry is removed.
+ * All methods are thread-safe.
+ */
+class StatePool {
+
+	private static final ConcurrentHashMap<String,StateReference> states = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<State> collected = new ReferenceQueue<>();
+
+	private StatePool() {}
+
+	/**
+	 * @param name name of the state
+	 * @return the state with the given name, it is created if there is none
+	 */
+	static State intern(String name) {
+		removeCollected();
+		while(true) {
+			StateReference reference = states.get(name);
+			State state = reference == null ? null : reference.get();
+			if(state != null)
+				return state;
+			State newState = new SimpleState(name);
+			StateReference newReference = new StateReference(name, newState);
+			if(reference == null ? states.putIfAbsent(name, newReference) == null : states.replace(name, reference, newReference))
+				return newState;
+		}
+	}
+
+	private static void removeCollected() {
+		for(Reference<? extends State> reference = collected.poll(); reference != null; reference = collected.poll())
+			states.remove(((StateReference) reference).name, reference);
+	}
+
+	private static class StateReference extends WeakReference<State> {
+
+		private final String name;
+
+		StateReference(String name, State state) {
+			super(state, collected);
+			this.name = name;
+		}
+	}
+}
@@ -15,6 +15,12 @@ import data.math.exceptions.OutOfDomainException;
 public interface TransitionFunction extends Function<BinaryTuple<State,Symbol>, State> {
 	
 	public State apply(State state, Symbol symbol) throws OutOfDomainException;
+	
+	/**
+	 * Applies the function without signalling undefined values by an exception.
+	 * @return the destination state of (state,symbol) or null if (state,symbol) is not in the domain of this function.
+	 */
+	public State applyOrNull(State state, Symbol symbol);
 
 	/**
 	 * Returns a set of states s with (s,a) in this functions domain for some a.
@@ -0,0 +1,126 @@
+package data.math.implementations;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import data.automaton.definitions.Alphabet;
+import data.automaton.definitions.State;
+import data.automaton.definitions.Symbol;
+import data.math.definitions.BinaryTuple;
+import data.math.definitions.Function;
+import data.math.definitions.Relation;
+import data.math.definitions.TransitionFunction;
+
+/**
+ * The inverse relation of a transition function f. It contains ((p,s),q) if and only if f((q,s)) = p.
+ * Images are answered by the preimage index of the transition function, so they take time proportional to their size.
+ * Preimages apply the transition function to every symbol of the alphabet, which is a lookup in its index.
+ * The tuple set is only created if it is requested.
+ */
+class InverseTransitionRelation implements Relation<BinaryTuple<State,Symbol>,State> {
+
+	private TransitionFunction function;
+	private Alphabet alphabet;
+	private Relation<BinaryTuple<State,Symbol>,State> relation;
+
+	/**
+	 * @param function the transition function to invert
+	 * @param alphabet the symbols the function is defined on
+	 * @throws IllegalArgumentException if the function or the alphabet is null
+	 */
+	InverseTransitionRelation(TransitionFunction function, Alphabet alphabet) {
+		if(function == null)
+			throw new IllegalArgumentException("The transition function must not be null!");
+		if(alphabet == null)
+			throw new IllegalArgumentException("The alphabet must not be null!");
+		this.function = function;
+		this.alphabet = alphabet;
+	}
+
+	@Override
+	public Set<State> getImage(BinaryTuple<State,Symbol> value) {
+		if(value == null)
+			throw new IllegalArgumentException("The value must not be null!");
+		return function.getPreimageStates(value.getSecond(), value.getFirst());
+	}
+
+	@Override
+	public Set<BinaryTuple<State,Symbol>> getPreimage(State value) {
+		if(value == null)
+			throw new IllegalArgumentException("The value must not be null!");
+		Set<BinaryTuple<State,Symbol>> preimage = new HashSet<>();
+		for(Symbol symbol: alphabet) {
+			State destination = function.applyOrNull(value, symbol);
+			if(destination != null)
+				preimage.add(MathFactory.createBinaryTuple(destination, symbol));
+		}
+		return Collections.unmodifiableSet(preimage);
+	}
+
+	@Override
+	public Set<BinaryTuple<State,Symbol>> getDomain() {
+		return getMaterializedRelation().getDomain();
+	}
+
+	@Override
+	public Set<State> getCodomain() {
+		return Collections.unmodifiableSet(function.getDomainStates());
+	}
+
+	@Override
+	public Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> getTuples() {
+		return getMaterializedRelation().getTuples();
+	}
+
+	@Override
+	public boolean isFunction() {
+		return getMaterializedRelation().isFunction();
+	}
+
+	@Override
+	public Function<BinaryTuple<State,Symbol>,State> getFunction() {
+		return getMaterializedRelation().getFunction();
+	}
+
+	@Override
+	public boolean isRightUnique() {
+		return getMaterializedRelation().isRightUnique();
+	}
+
+	@Override
+	public boolean isLeftUnique() {
+		return function.isRightUnique();
+	}
+
+	/**
+	 * Creates the tuple based relation on first use.
+	 * @return the inverse relation as a tuple based relation
+	 */
+	private synchronized Relation<BinaryTuple<State,Symbol>,State> getMaterializedRelation() {
+		if(relation == null) {
+			Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> inverse = new HashSet<>();
+			for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: function.getTuples())
+				inverse.add(MathFactory.createTransition(tuple.getSecond(), tuple.getFirst().getSecond(), tuple.getFirst().getFirst()));
+			relation = MathFactory.createRelation(inverse);
+		}
+		return relation;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == null) return false;
+		if(!(o instanceof Relation)) return false;
+		return ((Relation<?,?>) o).getTuples().equals(getTuples());
+	}
+
+	@Override
+	public int hashCode() {
+		return getMaterializedRelation().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getMaterializedRelation().toString();
+	}
+}
@@ -3,6 +3,7 @@ package data.math.implementations;
 import java.util.List;
 import java.util.Set;
 
+import data.automaton.definitions.Alphabet;
 import data.automaton.definitions.State;
 import data.automaton.definitions.Symbol;
 import data.math.definitions.Function;
@@ -42,6 +43,7 @@ public class MathFactory {
 	
 	/**
 	 * Creates a TransitionFunction.
+	 * The returned function keeps a hash index of its tuples, so applying it takes constant time.
 	 * @param tupels set of tupels that define the function.
 	 * @return new transition function object.
 	 */
@@ -49,6 +51,17 @@ public class MathFactory {
 		return new SimpleTransitionFunction(tupels);
 	}
 	
+	/**
+	 * Creates the inverse relation of a transition function. For each ((q,s),p) in f it contains ((p,s),q).
+	 * Images of the inverse relation are answered by the preimage index of the function, preimages by applying the function.
+	 * @param function the transition function f to invert.
+	 * @param alphabet the symbols f is defined on.
+	 * @return the inverse relation of f.
+	 */
+	public static Relation<BinaryTuple<State,Symbol>,State> createInverseTransitionRelation(TransitionFunction function, Alphabet alphabet){
+		return new InverseTransitionRelation(function, alphabet);
+	}
+	
 	/**
 	 * Creates a new BinaryTuple.
 	 * @param <X> type of the first value.
@@ -111,16 +111,18 @@ class SimpleRelation<X,Y> implements Relation<X, Y> {
 
 	@Override
 	public boolean isRightUnique() {
+		Set<X> seen = new HashSet<>();
 		for(BinaryTuple<X,Y> tupel: getTuples())
-			if(getImage(tupel.getFirst()).size() > 1)
+			if(!seen.add(tupel.getFirst()))
 				return false;
 		return true;
 	}
 
 	@Override
 	public boolean isLeftUnique() {
+		Set<Y> seen = new HashSet<>();
 		for(BinaryTuple<X,Y> tupel: getTuples())
-			if(getPreimage(tupel.getSecond()).size() > 1)
+			if(!seen.add(tupel.getSecond()))
 				return false;
 		return true;
 	}
@@ -1,6 +1,9 @@
 package data.math.implementations;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import data.automaton.definitions.State;
@@ -9,15 +12,67 @@ import data.math.definitions.TransitionFunction;
 import data.math.exceptions.OutOfDomainException;
 import data.math.definitions.BinaryTuple;
 
+/**
+ * A transition function that keeps a hash index of its tuples.
+ * Every symbol gets an ordinal and every origin state is mapped to an array of its destination states ordered by these ordinals.
+ * The index is built once at construction, so applying the function does not scan the tuple set.
+ */
 class SimpleTransitionFunction extends SimpleFunction<BinaryTuple<State,Symbol>, State> implements TransitionFunction {
 	
+	private Map<Symbol,Integer> symbolIndices;
+	private Map<State,State[]> index;
+	private Map<State,Set<State>> preimageStates;
+	private Map<State,Map<Symbol,Set<State>>> preimageStatesBySymbol;
+	
+	/**
+	 * @param tupels the tuple set that defines the transition function.
+	 * @throws IllegalArgumentException if the given tuple set does not define a function (is not right-unique) or either contains null or is null.
+	 */
 	SimpleTransitionFunction(Set<BinaryTuple<BinaryTuple<State,Symbol>,State>> tupels) {
 		super(tupels);
+
+		symbolIndices = new HashMap<>();
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tupel: tupels)
+			symbolIndices.putIfAbsent(tupel.getFirst().getSecond(), symbolIndices.size());
+
+		index = new HashMap<>();
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tupel: tupels)
+			index.computeIfAbsent(tupel.getFirst().getFirst(), n->new State[symbolIndices.size()])
+				[symbolIndices.get(tupel.getFirst().getSecond())] = tupel.getSecond();
 	}
 
 	@Override
 	public State apply(State state, Symbol symbol)  throws OutOfDomainException{
-		return apply(MathFactory.createBinaryTuple(state, symbol));
+		State destination = applyOrNull(state, symbol);
+		if(destination == null)
+			throw new OutOfDomainException();
+		return destination;
+	}
+	
+	@Override
+	public State applyOrNull(State state, Symbol symbol) {
+		if(state == null || symbol == null)
+			throw new IllegalArgumentException("Value must not be null!");
+		State[] destinations = index.get(state);
+		Integer symbolIndex = symbolIndices.get(symbol);
+		if(destinations == null || symbolIndex == null)
+			return null;
+		return destinations[symbolIndex];
+	}
+
+	@Override
+	public State apply(BinaryTuple<State,Symbol> value) throws OutOfDomainException {
+		if(value == null)
+			throw new IllegalArgumentException("Value must not be null!");
+		return apply(value.getFirst(), value.getSecond());
+	}
+
+	@Override
+	public Set<State> getImage(BinaryTuple<State,Symbol> value) {
+		if(value == null)
+			throw new IllegalArgumentException("The value must not be null!");
+		State destination = applyOrNull(value.getFirst(), value.getSecond());
+		return destination == null ? Collections.emptySet() : Collections.singleton(destination);
 	}
 	
 	@Override
@@ -37,10 +92,7 @@ class SimpleTransitionFunction extends SimpleFunction<BinaryTuple<State,Symbol>,
 
 	@Override
 	public Set<State> getDomainStates() {
-		Set<State> domainStates = new HashSet<>();
-		for(BinaryTuple<State,Symbol> tuple: getDomain())
-			domainStates.add(tuple.getFirst());		
-		return domainStates;
+		return new HashSet<>(index.keySet());
 	}
 
 	@Override
@@ -48,12 +100,9 @@ class SimpleTransitionFunction extends SimpleFunction<BinaryTuple<State,Symbol>,
 		if(target == null)
 			throw new IllegalArgumentException("The target state must not be null!");
 		
-		Set<State> preimageStates = new HashSet<>();
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: getTuples())
-			if(tuple.getSecond().equals(target))
-				preimageStates.add(tuple.getFirst().getFirst());
-		
-		return preimageStates;
+		createInverseIndex();
+		Set<State> origins = preimageStates.get(target);
+		return origins == null ? Collections.emptySet() : Collections.unmodifiableSet(origins);
 	}
 
 	@Override
@@ -61,11 +110,28 @@ class SimpleTransitionFunction extends SimpleFunction<BinaryTuple<State,Symbol>,
 		if(target == null)
 			throw new IllegalArgumentException("The target state must not be null!");
 		
-		Set<State> preimageStates = new HashSet<>();
-		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: getTuples())
-			if(tuple.getSecond().equals(target) && tuple.getFirst().getSecond().equals(symbol))
-				preimageStates.add(tuple.getFirst().getFirst());
-		
-		return preimageStates;
+		createInverseIndex();
+		Map<Symbol,Set<State>> originsBySymbol = preimageStatesBySymbol.get(target);
+		if(originsBySymbol == null || !originsBySymbol.containsKey(symbol))
+			return Collections.emptySet();
+		return Collections.unmodifiableSet(originsBySymbol.get(symbol));
+	}
+	
+	/**
+	 * Creates the inverse adjacency index (target -> symbol -> origins) of this function on first use.
+	 * Preimage queries are answered from this index afterwards.
+	 */
+	private synchronized void createInverseIndex() {
+		if(preimageStatesBySymbol != null)
+			return;
+		Map<State,Set<State>> origins = new HashMap<>();
+		Map<State,Map<Symbol,Set<State>>> originsBySymbol = new HashMap<>();
+		for(BinaryTuple<BinaryTuple<State,Symbol>,State> tuple: getTuples()) {
+			origins.computeIfAbsent(tuple.getSecond(), n->new HashSet<>()).add(tuple.getFirst().getFirst());
+			originsBySymbol.computeIfAbsent(tuple.getSecond(), n->new HashMap<>())
+				.computeIfAbsent(tuple.getFirst().getSecond(), n->new HashSet<>()).add(tuple.getFirst().getFirst());
+		}
+		preimageStates = origins;
+		preimageStatesBySymbol = originsBySymbol;
 	}
 }